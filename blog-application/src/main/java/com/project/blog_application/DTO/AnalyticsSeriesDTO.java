@@ -0,0 +1,74 @@
+package com.project.blog_application.DTO;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One metric over [from, to) in hour, day or week buckets (weeks start on Monday).
+ */
+public class AnalyticsSeriesDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String metric;
+    private String granularity;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long total;
+    private List<Point> points;
+
+    public AnalyticsSeriesDTO() {
+    }
+
+    public AnalyticsSeriesDTO(String metric, String granularity, LocalDateTime from, LocalDateTime to,
+            long total, List<Point> points) {
+        this.metric = metric;
+        this.granularity = granularity;
+        this.from = from;
+        this.to = to;
+        this.total = total;
+        this.points = points;
+    }
+
+    public static class Point implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private LocalDateTime bucketStart;
+        private long count;
+
+        public Point() {
+        }
+
+        public Point(LocalDateTime bucketStart, long count) {
+            this.bucketStart = bucketStart;
+            this.count = count;
+        }
+
+        public LocalDateTime getBucketStart() { return bucketStart; }
+        public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+
+        public long getCount() { return count; }
+        public void setCount(long count) { this.count = count; }
+    }
+
+    // Getters and setters
+    public String getMetric() { return metric; }
+    public void setMetric(String metric) { this.metric = metric; }
+
+    public String getGranularity() { return granularity; }
+    public void setGranularity(String granularity) { this.granularity = granularity; }
+
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public List<Point> getPoints() { return points; }
+    public void setPoints(List<Point> points) { this.points = points; }
+}
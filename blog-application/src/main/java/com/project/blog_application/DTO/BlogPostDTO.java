@@ -2,11 +2,12 @@ package com.project.blog_application.DTO;
 
 import com.project.blog_application.entities.BlogPost;
 import com.project.blog_application.services.FileStorageService;
+import com.project.blog_application.services.ImageVariantService;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
 
-public class BlogPostDTO implements Serializable {
+public class BlogPostDTO implements Serializable, EnrichablePostDTO {
 
     private static final long serialVersionUID = 1L;
 
@@ -14,12 +15,16 @@ public class BlogPostDTO implements Serializable {
     private String title;
     private String content;
     private String imageUrl;
+    private String originalImageUrl;
     private Long userId;
     private String username;
     private String email;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private boolean deleted;
+    private long likeCount;
+    private long commentCount;
+    private boolean likedByViewer;
 
     public BlogPostDTO() {
     }
@@ -30,8 +35,9 @@ public class BlogPostDTO implements Serializable {
         this.title = blogPost.getTitle();
         this.content = blogPost.getContent();
 
-        // ✅ CENTRALIZED image URL building
-        this.imageUrl = fileStorageService.buildPublicUrl(blogPost.getImageUrl());
+        // ✅ CENTRALIZED image URL building (full-size variant for the post page, original for downloads)
+        this.imageUrl = fileStorageService.buildVariantUrl(blogPost.getImageUrl(), ImageVariantService.Variant.FULL);
+        this.originalImageUrl = fileStorageService.buildPublicUrl(blogPost.getImageUrl());
 
         this.userId = blogPost.getUser().getId();
         this.username = blogPost.getUser().getUsername();
@@ -73,6 +79,14 @@ public class BlogPostDTO implements Serializable {
         this.imageUrl = imageUrl;
     }
 
+    public String getOriginalImageUrl() {
+        return originalImageUrl;
+    }
+
+    public void setOriginalImageUrl(String originalImageUrl) {
+        this.originalImageUrl = originalImageUrl;
+    }
+
     public Long getUserId() {
         return userId;
     }
@@ -120,4 +134,31 @@ public class BlogPostDTO implements Serializable {
     public void setDeleted(boolean deleted) {
         this.deleted = deleted;
     }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    @Override
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    @Override
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public boolean isLikedByViewer() {
+        return likedByViewer;
+    }
+
+    @Override
+    public void setLikedByViewer(boolean likedByViewer) {
+        this.likedByViewer = likedByViewer;
+    }
 }
\ No newline at end of file
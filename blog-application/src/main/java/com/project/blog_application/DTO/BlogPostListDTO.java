@@ -2,10 +2,11 @@ package com.project.blog_application.DTO;
 
 import com.project.blog_application.entities.BlogPost;
 import com.project.blog_application.services.FileStorageService;
+import com.project.blog_application.services.ImageVariantService;
 
 import java.time.LocalDateTime;
 
-public class BlogPostListDTO {
+public class BlogPostListDTO implements EnrichablePostDTO {
 
     private Long id;
     private String title;
@@ -13,6 +14,9 @@ public class BlogPostListDTO {
     private String imageUrl;
     private String username;
     private LocalDateTime createdAt;
+    private long likeCount;
+    private long commentCount;
+    private boolean likedByViewer;
 
     public BlogPostListDTO(){
     }
@@ -25,8 +29,8 @@ public class BlogPostListDTO {
                 ? blogPost.getContent().substring(0, 150) + "..."
                 : blogPost.getContent();
 
-        // ✅ CENTRALIZED image URL building
-        this.imageUrl = fileStorageService.buildPublicUrl(blogPost.getImageUrl());
+        // ✅ CENTRALIZED image URL building (card-sized variant for feed cards)
+        this.imageUrl = fileStorageService.buildVariantUrl(blogPost.getImageUrl(), ImageVariantService.Variant.CARD);
 
         this.username = blogPost.getUser().getUsername();
         this.createdAt = blogPost.getCreatedAt();
@@ -56,4 +60,31 @@ public class BlogPostListDTO {
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    @Override
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    @Override
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public boolean isLikedByViewer() {
+        return likedByViewer;
+    }
+
+    @Override
+    public void setLikedByViewer(boolean likedByViewer) {
+        this.likedByViewer = likedByViewer;
+    }
 }
\ No newline at end of file
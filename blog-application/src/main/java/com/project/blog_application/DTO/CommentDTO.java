@@ -32,6 +32,18 @@ public class CommentDTO implements Serializable {
         this.createdAt = comment.getCreatedAt();
     }
 
+    // Constructor used by JPQL projections (user and post columns come from joins, no lazy loading)
+    public CommentDTO(Long id, String content, Long userId, String username,
+                      Long blogPostId, String blogPostTitle, LocalDateTime createdAt) {
+        this.id = id;
+        this.content = content;
+        this.userId = userId;
+        this.username = username;
+        this.blogPostId = blogPostId;
+        this.blogPostTitle = blogPostTitle;
+        this.createdAt = createdAt;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -0,0 +1,108 @@
+package com.project.blog_application.DTO;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CommentNodeDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+    private String content;
+    private Long userId;
+    private String username;
+    private Long blogPostId;
+    private Long parentId;
+    private int depth;
+    private LocalDateTime createdAt;
+    private List<CommentNodeDTO> replies = new ArrayList<>();
+
+    public CommentNodeDTO() {
+    }
+
+    public CommentNodeDTO(CommentNodeView view) {
+        this.id = view.getId();
+        this.content = view.getContent();
+        this.userId = view.getUserId();
+        this.username = view.getUsername();
+        this.blogPostId = view.getBlogPostId();
+        this.parentId = view.getParentId();
+        this.depth = view.getDepth() != null ? view.getDepth() : 0;
+        this.createdAt = view.getCreatedAt();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Long getBlogPostId() {
+        return blogPostId;
+    }
+
+    public void setBlogPostId(Long blogPostId) {
+        this.blogPostId = blogPostId;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public List<CommentNodeDTO> getReplies() {
+        return replies;
+    }
+
+    public void setReplies(List<CommentNodeDTO> replies) {
+        this.replies = replies;
+    }
+}
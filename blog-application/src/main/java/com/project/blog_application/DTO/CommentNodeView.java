@@ -0,0 +1,27 @@
+package com.project.blog_application.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat row of a comment tree query, read straight from comments joined with users.
+ */
+public interface CommentNodeView {
+
+    Long getId();
+
+    String getContent();
+
+    Long getUserId();
+
+    String getUsername();
+
+    Long getBlogPostId();
+
+    Long getParentId();
+
+    String getPath();
+
+    Integer getDepth();
+
+    LocalDateTime getCreatedAt();
+}
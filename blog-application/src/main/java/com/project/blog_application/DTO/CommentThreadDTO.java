@@ -0,0 +1,40 @@
+package com.project.blog_application.DTO;
+
+import java.io.Serializable;
+
+/**
+ * A comment with its reply tree. {@code truncated} is set when the thread had more replies than one
+ * load returns; load the thread of a deeper reply to see the rest of its branch.
+ */
+public class CommentThreadDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private CommentNodeDTO root;
+    private boolean truncated;
+
+    public CommentThreadDTO() {
+    }
+
+    public CommentThreadDTO(CommentNodeDTO root, boolean truncated) {
+        this.root = root;
+        this.truncated = truncated;
+    }
+
+    // Getters and setters
+    public CommentNodeDTO getRoot() {
+        return root;
+    }
+
+    public void setRoot(CommentNodeDTO root) {
+        this.root = root;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+}
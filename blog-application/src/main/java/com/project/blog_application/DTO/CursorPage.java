@@ -0,0 +1,61 @@
+package com.project.blog_application.DTO;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Keyset-paginated slice. Pass {@code nextCursor} back as the cursor to fetch the following slice;
+ * it is null once there is nothing left.
+ */
+public class CursorPage<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<T> content;
+    private Long nextCursor;
+    private boolean hasMore;
+    private long totalElements;
+
+    public CursorPage() {
+    }
+
+    public CursorPage(List<T> content, Long nextCursor, boolean hasMore, long totalElements) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+        this.totalElements = totalElements;
+    }
+
+    // Getters and setters
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+}
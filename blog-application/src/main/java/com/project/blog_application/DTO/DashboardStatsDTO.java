@@ -11,6 +11,8 @@ public class DashboardStatsDTO implements Serializable {
     private long postCount;
     private long commentCount;
     private List<RecentActivityDTO> recentActivities;
+    // True when at least one value is a fallback because its source was slow or failed
+    private boolean partial;
 
     public DashboardStatsDTO() {}
 
@@ -33,4 +35,7 @@ public class DashboardStatsDTO implements Serializable {
 
     public List<RecentActivityDTO> getRecentActivities() { return recentActivities; }
     public void setRecentActivities(List<RecentActivityDTO> recentActivities) { this.recentActivities = recentActivities; }
+
+    public boolean isPartial() { return partial; }
+    public void setPartial(boolean partial) { this.partial = partial; }
 }
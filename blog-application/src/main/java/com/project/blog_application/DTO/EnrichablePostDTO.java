@@ -0,0 +1,16 @@
+package com.project.blog_application.DTO;
+
+/**
+ * Post DTOs that carry engagement data filled in by PostEnrichmentService
+ * after the page of posts has been loaded.
+ */
+public interface EnrichablePostDTO {
+
+    Long getId();
+
+    void setLikeCount(long likeCount);
+
+    void setCommentCount(long commentCount);
+
+    void setLikedByViewer(boolean likedByViewer);
+}
@@ -2,6 +2,7 @@ package com.project.blog_application.DTO;
 
 public class LoginResponse {
     private String token;
+    private String refreshToken;
     private String message;
 
     public LoginResponse(String token, String message) {
@@ -9,6 +10,12 @@ public class LoginResponse {
         this.message = message;
     }
 
+    public LoginResponse(String token, String refreshToken, String message) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.message = message;
+    }
+
     public String getToken() {
         return token;
     }
@@ -17,6 +24,14 @@ public class LoginResponse {
         this.token = token;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     public String getMessage() {
         return message;
     }
@@ -0,0 +1,14 @@
+package com.project.blog_application.DTO;
+
+public class RefreshRequest {
+    private String refreshToken;
+
+    // Getters and Setters
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+
+    @Override
+    public String toString() {
+        return "RefreshRequest{refreshToken='[hidden]'}";
+    }
+}
@@ -3,6 +3,7 @@ package com.project.blog_application.DTO;
 import com.project.blog_application.entities.Role;
 import com.project.blog_application.entities.User;
 import com.project.blog_application.services.FileStorageService;
+import com.project.blog_application.services.ImageVariantService;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
@@ -27,9 +28,9 @@ public class UserDTO implements Serializable {
         this.createdAt = user.getCreatedAt();
         this.bio = user.getBio();
 
-        // CENTRALIZED image URL handling
+        // CENTRALIZED image URL handling (avatars use the thumbnail variant)
         this.profilePicture =
-                fileStorageService.buildPublicUrl(user.getProfilePicture());
+                fileStorageService.buildVariantUrl(user.getProfilePicture(), ImageVariantService.Variant.THUMB);
     }
     
 
@@ -1,17 +1,31 @@
 package com.project.blog_application.config;
 import com.project.blog_application.entities.BlogPost;
 import com.project.blog_application.repository.BlogPostRepository;
+import com.project.blog_application.repository.CommentRepository;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 import java.util.List;
 
 @Component
 public class DataMigration {
 
+    private static final Logger logger = LoggerFactory.getLogger(DataMigration.class);
+
+    private static final String COMMENT_COUNT_BACKFILL = "comment-count-backfill";
+
     @Autowired
     private BlogPostRepository blogPostRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
     @PostConstruct
     public void migrateImageUrls() {
         List<BlogPost> posts = blogPostRepository.findAll();
@@ -21,6 +35,56 @@ public class DataMigration {
                 blogPostRepository.save(post);
             }
         }
-        System.out.println("Image URL migration completed.");
+        logger.info("Image URL migration completed.");
+    }
+
+    // Seeds blog_posts.comment_count for rows created before the counter existed. The write paths have
+    // kept it current since, so this runs once: a full recount locks every post row.
+    @PostConstruct
+    public void backfillCommentCounts() {
+        if (isApplied(COMMENT_COUNT_BACKFILL)) {
+            return;
+        }
+        int updated = blogPostRepository.recomputeCommentCounts();
+        // Recorded after the recount; nodes starting together may both recount, which is harmless
+        jdbcTemplate.update("INSERT IGNORE INTO applied_migrations (name, applied_at) VALUES (?, NOW())",
+                COMMENT_COUNT_BACKFILL);
+        logger.info("Comment count backfill completed for {} posts.", updated);
+    }
+
+    // Comments created before replies existed become top-level threads
+    @PostConstruct
+    public void backfillCommentPaths() {
+        int updated = commentRepository.backfillTopLevelPaths();
+        logger.info("Comment path backfill completed for {} comments.", updated);
+    }
+
+    private boolean isApplied(String migration) {
+        Integer applied = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM applied_migrations WHERE name = ?", Integer.class, migration);
+        return applied != null && applied > 0;
+    }
+
+    // comments.path started out as utf8mb4 VARCHAR(1000), too wide for the (root_id, path) index, which
+    // ddl-auto=update then silently failed to create. Narrow it to ASCII once and create the index.
+    @PostConstruct
+    public void migrateCommentPathColumn() {
+        String charset = jdbcTemplate.query(
+                "SELECT CHARACTER_SET_NAME FROM information_schema.COLUMNS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'comments' AND COLUMN_NAME = 'path'",
+                rs -> rs.next() ? rs.getString(1) : null);
+        if (charset != null && !"ascii".equalsIgnoreCase(charset)) {
+            jdbcTemplate.execute("ALTER TABLE comments MODIFY path VARCHAR(760) CHARACTER SET ascii NULL");
+            logger.info("Converted comments.path from {} to ASCII VARCHAR(760)", charset);
+        }
+
+        Integer indexes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.STATISTICS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'comments' AND INDEX_NAME = 'idx_comment_root_path'",
+                Integer.class);
+        if (indexes != null && indexes == 0) {
+            jdbcTemplate.execute("CREATE INDEX idx_comment_root_path ON comments (root_id, path)");
+            logger.info("Created index idx_comment_root_path");
+        }
     }
-}
\ No newline at end of file
+}
@@ -8,7 +8,11 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import com.project.blog_application.security.AuthenticatedUser;
 import com.project.blog_application.security.JwtUtil;
+import com.project.blog_application.security.TokenRevocationStore;
+import com.project.blog_application.security.UserRevocationStore;
+import com.project.blog_application.security.VerifiedToken;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -23,12 +27,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final UserDetailsService userDetailsService; // Service to load user details for authentication
     private final JwtUtil jwtUtil; // Utility for JWT token extraction and validation
+    private final UserRevocationStore revocationStore; // Per-user cut-offs for claims-based principals
+    private final TokenRevocationStore tokenRevocationStore; // Individually revoked token ids
 
     // Constructor injection for required dependencies
-    public JwtAuthenticationFilter(UserDetailsService userDetailsService, JwtUtil jwtUtil) {
+    public JwtAuthenticationFilter(UserDetailsService userDetailsService, JwtUtil jwtUtil,
+            UserRevocationStore revocationStore, TokenRevocationStore tokenRevocationStore) {
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
-        logger.info("JwtAuthenticationFilter initialized, jwtUtil present: {}", jwtUtil != null);
+        this.revocationStore = revocationStore;
+        this.tokenRevocationStore = tokenRevocationStore;
     }
 
     // Filters incoming requests to validate JWT and set authentication
@@ -36,45 +44,49 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
             @NonNull FilterChain chain) throws ServletException, IOException {
         
-        String method = request.getMethod();
-        String uri = request.getRequestURI();
-        logger.info("🔍 Request: {} {}", method, uri);
-
         String header = request.getHeader("Authorization");
-        logger.info("🔍 Authorization Header: {}", header);
 
         if (header != null && header.toLowerCase().startsWith("bearer ")) {
             String token = header.substring(7);
-            logger.info("🔍 Token extracted: {}...", token.substring(0, Math.min(20, token.length())));
             
             try {
-                String email = jwtUtil.extractEmail(token);
-                logger.info("Email extracted: {}", email);
-                
-                boolean valid = jwtUtil.validateToken(token, email);
-                logger.info("Token valid: {}", valid);
-                
-                if (valid && email != null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                    logger.info("User loaded: {}, Authorities: {}", userDetails.getUsername(), userDetails.getAuthorities());
-                    
+                // Signature, expiry and claims are checked in one pass
+                VerifiedToken verified = jwtUtil.verify(token);
+                String email = verified.email();
+
+                UserDetails userDetails = null;
+                if (verified.isRefreshToken()) {
+                    // Refresh tokens are only good for /api/auth/refresh
+                    logger.debug("Refresh token used as credentials on {}", request.getRequestURI());
+                } else if (tokenRevocationStore.isRevoked(verified.tokenId())) {
+                    logger.debug("Revoked token {} on {}", verified.tokenId(), request.getRequestURI());
+                } else if (verified.userId() != null) {
+                    // Principal straight from the claims; no user lookup
+                    if (revocationStore.isRevoked(verified.userId(), verified.issuedAt())) {
+                        logger.debug("Revoked token for user {} on {}", verified.userId(), request.getRequestURI());
+                    } else {
+                        userDetails = AuthenticatedUser.fromToken(verified);
+                    }
+                } else if (email != null) {
+                    // Tokens issued before the uid claim existed are resolved from the DB
+                    userDetails = userDetailsService.loadUserByUsername(email);
+                }
+
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
                     SecurityContextHolder.getContext().setAuthentication(auth);
-                    logger.info("Authentication set successfully for {} {}", method, uri);
-                } else {
-                    logger.warn("Invalid token for {} {} - letting Spring Security handle it", method, uri);
-
+                    if (userDetails instanceof AuthenticatedUser principal) {
+                        // Picked up by the access log, which runs outside the security context
+                        request.setAttribute(RequestLoggingFilter.USER_ID_ATTRIBUTE, principal.getId());
+                    }
                 }
             } catch (Exception e) {
-                logger.error("Token processing error for {} {}: {}", method, uri, e.getMessage());
-
+                // Not logged per request; the access log records the resulting status
+                logger.debug("Token rejected for {}: {}", request.getRequestURI(), e.getMessage());
             }
-        } else {
-            logger.info("No Bearer token for {} {} - anonymous request", method, uri);
         }
 
-
         chain.doFilter(request, response);
     }
 }
\ No newline at end of file
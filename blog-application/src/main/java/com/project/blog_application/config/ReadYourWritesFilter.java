@@ -0,0 +1,47 @@
+package com.project.blog_application.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Read-your-writes for replica routing: a successful POST/PUT/PATCH/DELETE by an authenticated user
+ * opens the user's sticky window, and while it is open that user's read-only transactions use the
+ * primary. Registered by {@link ReplicaDataSourceConfig}; runs after Spring Security, whose JWT
+ * filter sets the user id attribute.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    public ReadYourWritesFilter(ReplicaRoutingDataSource routingDataSource) {
+        this.routingDataSource = routingDataSource;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        Long userId = request.getAttribute(RequestLoggingFilter.USER_ID_ATTRIBUTE) instanceof Long id ? id : null;
+        routingDataSource.pinIfRecentWriter(userId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.unpin();
+            if (userId != null && isWrite(request.getMethod()) && response.getStatus() < 400) {
+                routingDataSource.recordWrite(userId);
+            }
+        }
+    }
+
+    private static boolean isWrite(String method) {
+        return switch (method) {
+            case "POST", "PUT", "PATCH", "DELETE" -> true;
+            default -> false;
+        };
+    }
+}
@@ -131,26 +131,6 @@ public class RedisConfig implements CachingConfigurer {
                 defaultConfig.entryTtl(Duration.ofMinutes(5))
         );
 
-        cacheConfigurations.put(
-                "userCount",
-                defaultConfig.entryTtl(Duration.ofMinutes(5))
-        );
-
-        cacheConfigurations.put(
-                "postCount",
-                defaultConfig.entryTtl(Duration.ofMinutes(5))
-        );
-
-        cacheConfigurations.put(
-                "commentCount",
-                defaultConfig.entryTtl(Duration.ofMinutes(5))
-        );
-
-        cacheConfigurations.put(
-                "dashboardStats",
-                defaultConfig.entryTtl(Duration.ofMinutes(5))
-        );
-
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
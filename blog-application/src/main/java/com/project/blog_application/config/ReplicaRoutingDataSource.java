@@ -0,0 +1,228 @@
+package com.project.blog_application.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The read-only side of the datasource: hands out connections to a healthy replica, round robin,
+ * and to the primary when none is healthy or the current request is pinned.
+ *
+ * Used as the read-only target of a LazyConnectionDataSourceProxy, so only read-only transactions
+ * ever get here. Replicas are checked on a fixed delay: one that cannot be reached, has replication
+ * stopped, or lags more than max-lag-seconds is skipped until a later check passes. A replica that
+ * fails to hand out a connection in between is marked unhealthy on the spot.
+ *
+ * Read-your-writes: {@link #recordWrite} marks a user for the sticky window, and
+ * {@link ReadYourWritesFilter} pins that user's requests to the primary until it has passed. The
+ * window is tracked per node, so it relies on the window being longer than typical replica lag
+ * rather than on every node knowing about every write.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private static final class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = false; // until the first check passes
+        private volatile long lagSeconds = -1;
+        private volatile boolean lagCheckSupported = true;
+
+        private Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagSeconds;
+    private final long stickyWindowMs;
+    private final int checkTimeoutSeconds;
+
+    private final AtomicInteger next = new AtomicInteger();
+    // User id -> end of the user's read-your-writes window (epoch ms)
+    private final ConcurrentHashMap<Long, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    private final Counter replicaReads;
+    private final Counter stickyReads;
+    private final Counter fallbackReads;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaDataSources,
+                                    MeterRegistry meterRegistry, long maxLagSeconds, long stickyWindowMs,
+                                    int checkTimeoutSeconds) {
+        this.primary = primary;
+        this.replicas = replicaDataSources.stream()
+                .map(dataSource -> new Replica(dataSource.getPoolName(), dataSource))
+                .toList();
+        this.maxLagSeconds = maxLagSeconds;
+        this.stickyWindowMs = stickyWindowMs;
+        this.checkTimeoutSeconds = checkTimeoutSeconds;
+
+        this.replicaReads = routed(meterRegistry, "replica");
+        this.stickyReads = routed(meterRegistry, "primary_sticky");
+        this.fallbackReads = routed(meterRegistry, "primary_fallback");
+        for (Replica replica : replicas) {
+            Gauge.builder("datasource_replica_lag_seconds", replica, r -> r.lagSeconds)
+                    .description("Replication lag at the last health check (-1 when unknown or stopped)")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+            Gauge.builder("datasource_replica_healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("1 while the replica receives read-only transactions")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource_read_routing_total")
+                .description("Read-only connections by where they were routed")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (Boolean.TRUE.equals(PINNED.get())) {
+            stickyReads.increment();
+            return primary.getConnection();
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                markUnhealthy(replica, e.getMessage());
+            }
+        }
+        fallbackReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Per-call credentials cannot be honoured by pooled connections (Hikari refuses them the same way)
+        throw new SQLFeatureNotSupportedException("Connections are taken from the configured pools");
+    }
+
+    // Starts (or extends) the user's read-your-writes window
+    public void recordWrite(Long userId) {
+        if (userId != null && stickyWindowMs > 0) {
+            stickyUntil.put(userId, System.currentTimeMillis() + stickyWindowMs);
+        }
+    }
+
+    // Pins the current thread to the primary while the user's window is open; returns whether it did
+    public boolean pinIfRecentWriter(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long until = stickyUntil.get(userId);
+        if (until == null || until < System.currentTimeMillis()) {
+            return false;
+        }
+        PINNED.set(Boolean.TRUE);
+        return true;
+    }
+
+    public static void unpin() {
+        PINNED.remove();
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${datasource.replicas.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            check(replica);
+        }
+        long now = System.currentTimeMillis();
+        stickyUntil.values().removeIf(until -> until < now);
+    }
+
+    private void check(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(checkTimeoutSeconds);
+            long lag = readLag(replica, statement);
+            replica.lagSeconds = lag;
+            if (lag < 0) {
+                markUnhealthy(replica, "replication is not running");
+            } else if (lag > maxLagSeconds) {
+                markUnhealthy(replica, "lag of " + lag + "s exceeds " + maxLagSeconds + "s");
+            } else if (!replica.healthy) {
+                replica.healthy = true;
+                logger.info("Replica {} is healthy (lag {}s), routing read-only transactions to it", replica.name, lag);
+            }
+        } catch (SQLException e) {
+            replica.lagSeconds = -1;
+            markUnhealthy(replica, e.getMessage());
+        }
+    }
+
+    /**
+     * Seconds behind the source, or -1 when replication is stopped. An instance that is not set up as
+     * a replica (a plain second database, as in local testing) reports 0; so does a server where the
+     * status cannot be read, in which case only reachability is checked.
+     */
+    private long readLag(Replica replica, Statement statement) throws SQLException {
+        if (replica.lagCheckSupported) {
+            try (ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")) {
+                if (!status.next()) {
+                    return 0;
+                }
+                long lag = status.getLong("Seconds_Behind_Source");
+                return status.wasNull() ? -1 : lag;
+            } catch (SQLException e) {
+                replica.lagCheckSupported = false;
+                logger.warn("Cannot read replication status of {} ({}); checking reachability only",
+                        replica.name, e.getMessage());
+            }
+        }
+        try (ResultSet ping = statement.executeQuery("SELECT 1")) {
+            ping.next();
+        }
+        return 0;
+    }
+
+    private void markUnhealthy(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            logger.warn("Replica {} taken out of rotation: {}", replica.name, reason);
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+}
@@ -0,0 +1,180 @@
+package com.project.blog_application.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Writes one structured access record per request to the "access" logger.
+ *
+ * Successful, fast requests are sampled at {@code logging.access.sample-rate}; client and server
+ * errors, and requests slower than {@code logging.access.slow-threshold-ms}, are always written.
+ * Headers are never logged and secret-looking query parameters are redacted. The "access" logger
+ * goes through its own non-blocking async appender (logback-spring.xml), so formatting and I/O
+ * happen off the request thread.
+ *
+ * Runs ahead of Spring Security so 401/403 responses are recorded too. Async requests (SSE, streamed
+ * uploads) are recorded when their response completes, not when the first dispatch returns.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("access");
+
+    // Set by JwtAuthenticationFilter; the security context is cleared before this filter finishes
+    public static final String USER_ID_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".userId";
+
+    private static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    private static final Pattern SECRET_PARAMS = Pattern.compile(
+            "(?i)((?:^|&)[^=&]*(?:token|password|secret|key|authorization|credential)[^=&]*=)[^&]*");
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final long slowThresholdMs;
+
+    public RequestLoggingFilter(
+            @Value("${logging.access.enabled:true}") boolean enabled,
+            @Value("${logging.access.sample-rate:0.1}") double sampleRate,
+            @Value("${logging.access.slow-threshold-ms:1000}") long slowThresholdMs
+    ) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.slowThresholdMs = slowThresholdMs;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain chain) throws ServletException, IOException {
+        if (!enabled) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String requestId = requestId(request);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        MDC.put("requestId", requestId);
+
+        long started = System.nanoTime();
+        Throwable failure = null;
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (failure == null && request.isAsyncStarted()) {
+                // SSE streams and streamed uploads: the response is not finished yet, log when it is
+                request.getAsyncContext().addListener(new CompletionListener(requestId, started), request, response);
+            } else {
+                write(request, status(response, failure), elapsedMs(started), failure);
+            }
+            MDC.remove("requestId");
+        }
+    }
+
+    // Logs an async request once its response completes, with the error that ended it, if any
+    private final class CompletionListener implements AsyncListener {
+
+        private final String requestId;
+        private final long started;
+        private volatile Throwable failure;
+
+        private CompletionListener(String requestId, long started) {
+            this.requestId = requestId;
+            this.started = started;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+            MDC.put("requestId", requestId);
+            try {
+                write((HttpServletRequest) event.getSuppliedRequest(), status(response, failure), elapsedMs(started),
+                        failure);
+            } finally {
+                MDC.remove("requestId");
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // Expected for idle streams; the status Spring MVC sets for the timeout is what gets logged
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failure = event.getThrowable();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register for a restarted async cycle so completion is still reported
+            event.getAsyncContext().addListener(this, event.getSuppliedRequest(), event.getSuppliedResponse());
+        }
+    }
+
+    private static int status(HttpServletResponse response, Throwable failure) {
+        return failure != null && response.getStatus() < 500 ? 500 : response.getStatus();
+    }
+
+    private static long elapsedMs(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+
+    private void write(HttpServletRequest request, int status, long durationMs, Throwable failure) {
+        boolean error = status >= 400;
+        boolean slow = durationMs >= slowThresholdMs;
+        if (!error && !slow && !sampled()) {
+            return;
+        }
+
+        Object userId = request.getAttribute(USER_ID_ATTRIBUTE);
+        String query = request.getQueryString();
+        String path = query == null ? request.getRequestURI() : request.getRequestURI() + "?" + redact(query);
+
+        if (status >= 500 || failure != null) {
+            accessLog.warn("method={} path=\"{}\" status={} durationMs={} userId={} client={} slow={} error=\"{}\"",
+                    request.getMethod(), path, status, durationMs, userId, request.getRemoteAddr(), slow,
+                    failure != null ? failure.getClass().getSimpleName() : "");
+        } else {
+            accessLog.info("method={} path=\"{}\" status={} durationMs={} userId={} client={} slow={}",
+                    request.getMethod(), path, status, durationMs, userId, request.getRemoteAddr(), slow);
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    // Honors a caller-supplied id (e.g. from a proxy) when it looks sane
+    private static String requestId(HttpServletRequest request) {
+        String incoming = request.getHeader(REQUEST_ID_HEADER);
+        if (incoming != null && !incoming.isBlank() && incoming.length() <= 64 && incoming.matches("[A-Za-z0-9._-]+")) {
+            return incoming;
+        }
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    static String redact(String query) {
+        return SECRET_PARAMS.matcher(query).replaceAll("$1[redacted]");
+    }
+}
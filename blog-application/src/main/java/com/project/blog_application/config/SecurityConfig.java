@@ -1,5 +1,7 @@
 package com.project.blog_application.config;
 
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -18,6 +20,8 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import java.util.List;
 
 import com.project.blog_application.security.JwtUtil;
+import com.project.blog_application.security.TokenRevocationStore;
+import com.project.blog_application.security.UserRevocationStore;
 
 @Configuration
 @EnableWebSecurity
@@ -25,20 +29,26 @@ public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
+    private final UserRevocationStore revocationStore;
+    private final TokenRevocationStore tokenRevocationStore;
 
-    public SecurityConfig(UserDetailsService userDetailsService, JwtUtil jwtUtil) {
+    public SecurityConfig(UserDetailsService userDetailsService, JwtUtil jwtUtil,
+            UserRevocationStore revocationStore, TokenRevocationStore tokenRevocationStore) {
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
+        this.revocationStore = revocationStore;
+        this.tokenRevocationStore = tokenRevocationStore;
     }
 
+    // Raising the strength takes effect for new hashes; existing ones are upgraded on the next login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(userDetailsService, jwtUtil);
+        return new JwtAuthenticationFilter(userDetailsService, jwtUtil, revocationStore, tokenRevocationStore);
     }
 
     @Bean
@@ -49,6 +59,11 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // Async dispatches resume a request that was already authorized (SSE streams)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Method security is not enabled, so @PreAuthorize on these handlers does nothing: the
+                        // admin-only reads have to be matched here, ahead of the public /api/comments rules
+                        .requestMatchers(HttpMethod.GET, "/api/comments").hasRole("ADMIN")
                         .requestMatchers(
                                 "/api/auth/**",
                                 "/api/users/login",
@@ -58,15 +73,20 @@ public class SecurityConfig {
                                 "/api/likes/status",
                                 "/api/likes/test",
                                 "/api/likes/count/*",
-                                "/api/comments",
                                 "/api/comments/*",
                                 "/api/comments/blog/*",
+                                "/api/comments/blog/*/page",
+                                "/api/comments/blog/*/threads",
+                                "/api/comments/*/thread",
                                 "/api/health",
                                 "/actuator/**",
                                 "/error",
                                 "/uploads/**").permitAll()
+                        // Creating a comment; the admin listing on GET is matched above
+                        .requestMatchers(HttpMethod.POST, "/api/comments").permitAll()
                         .requestMatchers(
                                 "/api/posts/upload",
+                                "/api/uploads",
                                 "/api/users/{id}",
                                 "/api/users/me",
                                 "/api/users/{id}/statistics",
@@ -79,6 +99,7 @@ public class SecurityConfig {
                         .requestMatchers(
                                 "/api/users",
                                 "/api/admin/**",
+                                "/api/dashboard/**",
                                 "/api/users/count",
                                 "/api/posts/count",
                                 "/api/comments/count",
@@ -0,0 +1,57 @@
+package com.project.blog_application.controllers;
+
+import com.project.blog_application.DTO.AnalyticsSeriesDTO;
+import com.project.blog_application.services.AnalyticsRollupService;
+import com.project.blog_application.services.AnalyticsRollupService.Granularity;
+import com.project.blog_application.services.AnalyticsRollupService.Metric;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Content analytics from the hourly rollups; /api/admin/** is restricted to ROLE_ADMIN in SecurityConfig
+@RestController
+@RequestMapping("/api/admin/analytics")
+@CrossOrigin
+public class AdminAnalyticsController {
+
+    private final AnalyticsRollupService analyticsRollupService;
+
+    public AdminAnalyticsController(AnalyticsRollupService analyticsRollupService) {
+        this.analyticsRollupService = analyticsRollupService;
+    }
+
+    /**
+     * Series for one metric (posts, comments, likes, signups) or all of them when omitted.
+     * Defaults to daily buckets over the last 30 days.
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getAnalytics(
+            @RequestParam(required = false) String metric,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            LocalDateTime end = to != null ? to : LocalDateTime.now();
+            LocalDateTime start = from != null ? from : end.minusDays(30);
+            Granularity bucket = Granularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+
+            List<Metric> metrics = metric == null
+                    ? List.of(Metric.values())
+                    : List.of(Metric.valueOf(metric.toUpperCase(Locale.ROOT)));
+            List<AnalyticsSeriesDTO> series = new ArrayList<>(metrics.size());
+            for (Metric m : metrics) {
+                series.add(analyticsRollupService.series(m, bucket, start, end));
+            }
+            return ResponseEntity.ok(series);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
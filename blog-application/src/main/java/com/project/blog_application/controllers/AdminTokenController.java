@@ -0,0 +1,37 @@
+package com.project.blog_application.controllers;
+
+import com.project.blog_application.services.AuthService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// Token revocation for admins; /api/admin/** is restricted to ROLE_ADMIN in SecurityConfig
+@RestController
+@RequestMapping("/api/admin/tokens")
+@CrossOrigin
+public class AdminTokenController {
+
+    private final AuthService authService;
+
+    public AdminTokenController(AuthService authService) {
+        this.authService = authService;
+    }
+
+    // Revokes every token issued to the user so far
+    @PostMapping("/users/{userId}/revoke")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> revokeUserTokens(@PathVariable Long userId) {
+        authService.revokeAllTokens(userId);
+        return ResponseEntity.ok(Map.of("userId", userId, "revoked", true));
+    }
+
+    // Revokes a single access or refresh token, given as {"token": "..."}
+    @PostMapping("/revoke")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> revokeToken(@RequestBody Map<String, String> body) {
+        boolean revoked = authService.revokeToken(body.get("token"));
+        return ResponseEntity.ok(Map.of("revoked", revoked));
+    }
+}
@@ -2,8 +2,10 @@ package com.project.blog_application.controllers;
 
 import com.project.blog_application.DTO.LoginRequest;
 import com.project.blog_application.DTO.LoginResponse;
+import com.project.blog_application.DTO.RefreshRequest;
 import com.project.blog_application.entities.User;
 import com.project.blog_application.exceptions.InvalidCredentialsException;
+import com.project.blog_application.exceptions.ServiceBusyException;
 import com.project.blog_application.metrics.BlogMetrics;
 import com.project.blog_application.services.AuthService;
 import org.slf4j.Logger;
@@ -47,6 +49,8 @@ public class AuthController {
             logger.error("Signup failed: {}", e.getMessage());
             response.put("error", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (ServiceBusyException e) {
+            throw e; // 503 from GlobalExceptionHandler
         } catch (Exception e) {
             logger.error("Unexpected error during signup: {}", e.getMessage());
             response.put("error", "Registration failed");
@@ -64,6 +68,8 @@ public class AuthController {
             logger.error("Login failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new LoginResponse(null, "Invalid credentials"));
+        } catch (ServiceBusyException e) {
+            throw e; // 503 from GlobalExceptionHandler
         } catch (Exception e) {
             logger.error("Unexpected error during login: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -71,6 +77,32 @@ public class AuthController {
         }
     }
 
+    // Exchanges a refresh token for a new access/refresh pair; the old refresh token stops working
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@RequestBody RefreshRequest refreshRequest) {
+        try {
+            return ResponseEntity.ok(authService.refresh(refreshRequest.getRefreshToken()));
+        } catch (InvalidCredentialsException e) {
+            logger.warn("Token refresh rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new LoginResponse(null, "Invalid refresh token"));
+        }
+    }
+
+    // Revokes the bearer access token and the refresh token in the body, if any
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, String>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorization,
+            @RequestBody(required = false) RefreshRequest refreshRequest) {
+        String accessToken = authorization != null && authorization.toLowerCase().startsWith("bearer ")
+                ? authorization.substring(7) : null;
+        authService.logout(accessToken, refreshRequest != null ? refreshRequest.getRefreshToken() : null);
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Logged out");
+        return ResponseEntity.ok(response);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
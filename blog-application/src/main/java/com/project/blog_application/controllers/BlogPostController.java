@@ -14,18 +14,21 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import com.project.blog_application.services.FileStorageService;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.blog_application.DTO.BlogPostDTO;
+import com.project.blog_application.DTO.BlogPostListDTO;
 import com.project.blog_application.entities.BlogPost;
 import com.project.blog_application.entities.User;
 import com.project.blog_application.exceptions.ResourceNotFoundException;
 import com.project.blog_application.repository.UserRepository;
+import com.project.blog_application.security.AuthenticatedUser;
 import com.project.blog_application.services.BlogPostService;
+import com.project.blog_application.services.PostEnrichmentService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,25 +43,32 @@ public class BlogPostController {
     private final UserRepository userRepository;
     private final FileStorageService fileStorageService;
     private final BlogMetrics blogMetrics;
+    private final PostEnrichmentService postEnrichmentService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
     public BlogPostController(
             BlogPostService blogPostService,
             UserRepository userRepository,
             FileStorageService fileStorageService,
-            BlogMetrics blogMetrics
+            BlogMetrics blogMetrics,
+            PostEnrichmentService postEnrichmentService,
+            ObjectMapper objectMapper
     ) {
         this.blogPostService = blogPostService;
         this.userRepository = userRepository;
         this.fileStorageService = fileStorageService;
         this.blogMetrics = blogMetrics;
+        this.postEnrichmentService = postEnrichmentService;
+        this.objectMapper = objectMapper;
     }
 
-    // Returns cached JSON string directly
+    // Page content comes from the cached JSON; counts and viewer flags are attached per request
     @GetMapping
-    public ResponseEntity<String> getAllPosts(
+    public ResponseEntity<?> getAllPosts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         try {
             logger.info("📄 GET /api/posts - page: {}, size: {}", page, size);
 
@@ -66,23 +76,28 @@ public class BlogPostController {
                     PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"))
             );
 
-            return ResponseEntity.ok()
-                    .header("Content-Type", "application/json")
-                    .body(json);
+            PageResponse<BlogPostListDTO> response = objectMapper.readValue(json,
+                    new TypeReference<PageResponse<BlogPostListDTO>>() {});
+            postEnrichmentService.enrich(response.getContent(), resolveViewerId(principal));
+
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             logger.error("Error fetching posts: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .header("Content-Type", "application/json")
                     .body("{\"error\":\"Failed to fetch posts\"}");
         }
     }
 
     // Returns deserialized DTO from cached JSON
     @GetMapping("/{id}")
-    public ResponseEntity<BlogPostDTO> getPostById(@PathVariable Long id) {
+    public ResponseEntity<BlogPostDTO> getPostById(@PathVariable Long id,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         try {
             logger.info("📄 GET /api/posts/{} - fetching post", id);
 
             BlogPostDTO response = blogPostService.getBlogPostDTOById(id);
+            postEnrichmentService.enrich(response, resolveViewerId(principal));
             return ResponseEntity.ok(response);
         } catch (ResourceNotFoundException e) {
             logger.warn("Post {} not found", id);
@@ -97,13 +112,13 @@ public class BlogPostController {
     public ResponseEntity<BlogPostDTO> createPost(
             @RequestPart("blogPost") String blogPostJson,
             @RequestPart(value = "file", required = false) MultipartFile file,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         try {
-            if (userDetails == null) {
+            if (principal == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
             }
 
-            Optional<User> user = fetchAuthenticatedUser(userDetails);
+            Optional<User> user = fetchAuthenticatedUser(principal);
             if (!user.isPresent()) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
             }
@@ -131,8 +146,14 @@ public class BlogPostController {
         }
     }
 
-    private Optional<User> fetchAuthenticatedUser(UserDetails userDetails) {
-        return userRepository.findByEmail(userDetails.getUsername());
+    // Author entity for a new post, by primary key from the token's user id
+    private Optional<User> fetchAuthenticatedUser(AuthenticatedUser principal) {
+        return userRepository.findById(principal.getId());
+    }
+
+    // Viewer for "liked by you" flags; anonymous requests get none
+    private Long resolveViewerId(AuthenticatedUser principal) {
+        return principal != null ? principal.getId() : null;
     }
 
     private BlogPost convertJsonToBlogPost(String blogPostJson) throws IOException {
@@ -206,10 +227,12 @@ public class BlogPostController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<java.util.List<BlogPostDTO>> getPostsByUserId(@PathVariable Long userId) {
+    public ResponseEntity<java.util.List<BlogPostDTO>> getPostsByUserId(@PathVariable Long userId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         try {
             logger.info("GET /api/posts/user/{}", userId);
             java.util.List<BlogPostDTO> posts = blogPostService.getPostsByUserId(userId);
+            postEnrichmentService.enrich(posts, resolveViewerId(principal));
             return ResponseEntity.ok(posts);
         } catch (Exception e) {
             logger.error("Error fetching posts for user {}: {}", userId, e.getMessage());
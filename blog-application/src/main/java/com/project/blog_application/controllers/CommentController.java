@@ -1,15 +1,19 @@
 package com.project.blog_application.controllers;
 
 import com.project.blog_application.DTO.CommentDTO;
+import com.project.blog_application.DTO.CommentNodeDTO;
+import com.project.blog_application.DTO.CommentThreadDTO;
+import com.project.blog_application.DTO.CursorPage;
+import com.project.blog_application.DTO.PageResponse;
 import com.project.blog_application.metrics.BlogMetrics;
 import com.project.blog_application.services.CommentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/comments")
@@ -24,37 +28,68 @@ public class CommentController {
         this.blogMetrics = blogMetrics;
     }
 
-    // Create a comment
+    // Create a comment, or a reply to parentId
     @PostMapping
     public ResponseEntity<CommentDTO> createComment(
             @RequestParam Long userId,
             @RequestParam Long blogPostId,
+            @RequestParam(required = false) Long parentId,
             @RequestBody String content) {
         try {
             blogMetrics.incrementCommentCreated();
-            CommentDTO comment = commentService.createComment(userId, blogPostId, content);
+            CommentDTO comment = commentService.createComment(userId, blogPostId, content, parentId);
             return ResponseEntity.ok(comment);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(null);
         }
     }
 
-    // Get all comments
+    // Get all comments (admin view, paginated)
     @GetMapping
-    public ResponseEntity<List<CommentDTO>> getAllComments() {
-        List<CommentDTO> comments = commentService.getAllComments();
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageResponse<CommentDTO>> getAllComments(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        PageResponse<CommentDTO> comments = commentService.getAllComments(page, size);
         return ResponseEntity.ok(comments);
     }
 
     // Get all comments for a blog post
     @GetMapping("/blog/{blogPostId}")
     public ResponseEntity<List<CommentDTO>> getCommentsByBlogPost(@PathVariable Long blogPostId) {
-        List<CommentDTO> comments = commentService.getCommentsByBlogPost(blogPostId).stream()
-                .map(CommentDTO::new)
-                .collect(Collectors.toList());
+        List<CommentDTO> comments = commentService.getCommentsByBlogPost(blogPostId);
         return ResponseEntity.ok(comments);
     }
 
+    // Cursor-paginated comments for a blog post; pass nextCursor back as cursor
+    @GetMapping("/blog/{blogPostId}/page")
+    public ResponseEntity<CursorPage<CommentDTO>> getCommentPage(
+            @PathVariable Long blogPostId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "newest") String order) {
+        boolean newestFirst = !"oldest".equalsIgnoreCase(order);
+        return ResponseEntity.ok(commentService.getCommentPage(blogPostId, cursor, limit, newestFirst));
+    }
+
+    // Top-level comments of a post with their first replies, newest threads first
+    @GetMapping("/blog/{blogPostId}/threads")
+    public ResponseEntity<CursorPage<CommentNodeDTO>> getThreadPage(
+            @PathVariable Long blogPostId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "3") int replies) {
+        return ResponseEntity.ok(commentService.getThreadPage(blogPostId, cursor, limit, replies));
+    }
+
+    // A comment with its reply tree, flagged truncated past the node limit
+    @GetMapping("/{id}/thread")
+    public ResponseEntity<CommentThreadDTO> getThread(@PathVariable Long id) {
+        return commentService.getThread(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     // Get a comment by ID
     @GetMapping("/{id}")
     public ResponseEntity<CommentDTO> getCommentById(@PathVariable Long id) {
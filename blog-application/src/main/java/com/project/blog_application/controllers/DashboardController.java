@@ -2,12 +2,15 @@ package com.project.blog_application.controllers;
 
 import com.project.blog_application.DTO.DashboardStatsDTO;
 import com.project.blog_application.services.DashboardService;
+import com.project.blog_application.services.DashboardStream;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
 @RestController
@@ -16,9 +19,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardStream dashboardStream;
 
-    public DashboardController(DashboardService dashboardService) {
+    public DashboardController(DashboardService dashboardService, DashboardStream dashboardStream) {
         this.dashboardService = dashboardService;
+        this.dashboardStream = dashboardStream;
     }
 
     @GetMapping("/stats")
@@ -32,4 +37,11 @@ public class DashboardController {
             return ResponseEntity.status(500).body("Registry Sync Failed: " + e.getMessage());
         }
     }
+
+    // Live updates for an open dashboard instead of polling /stats
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public SseEmitter streamDashboard() {
+        return dashboardStream.subscribe();
+    }
 }
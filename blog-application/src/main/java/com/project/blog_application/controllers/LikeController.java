@@ -1,13 +1,19 @@
 package com.project.blog_application.controllers;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -15,18 +21,24 @@ import org.springframework.web.bind.annotation.RestController;
 import com.project.blog_application.services.FileStorageService;
 import com.project.blog_application.DTO.BlogPostDTO;
 import com.project.blog_application.entities.BlogPost;
+import com.project.blog_application.exceptions.ResourceNotFoundException;
+import com.project.blog_application.security.AuthenticatedUser;
 import com.project.blog_application.services.LikeService;
+import com.project.blog_application.services.PostEnrichmentService;
 
 @RestController
 @RequestMapping("api/likes")
 public class LikeController {
     private final LikeService likeService;
     private final FileStorageService fileStorageService;
+    private final PostEnrichmentService postEnrichmentService;
 
     @Autowired
-    public LikeController(LikeService likeService, FileStorageService fileStorageService) {
+    public LikeController(LikeService likeService, FileStorageService fileStorageService,
+            PostEnrichmentService postEnrichmentService) {
         this.likeService = likeService;
         this.fileStorageService = fileStorageService;
+        this.postEnrichmentService = postEnrichmentService;
     }
 
     @GetMapping("/test")
@@ -40,6 +52,40 @@ public class LikeController {
         return ResponseEntity.ok(result);
     }
 
+    // Idempotent like by the caller: one INSERT IGNORE, "changed" is false if the post was already liked
+    @PutMapping("/{blogPostId}")
+    public ResponseEntity<Map<String, Object>> like(@PathVariable Long blogPostId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "You are not logged in."));
+        }
+        try {
+            boolean changed = likeService.like(principal.getId(), blogPostId);
+            return ResponseEntity.ok(likeState(blogPostId, true, changed));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Idempotent unlike by the caller: one DELETE, "changed" is false if there was no like
+    @DeleteMapping("/{blogPostId}")
+    public ResponseEntity<Map<String, Object>> unlike(@PathVariable Long blogPostId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "You are not logged in."));
+        }
+        boolean changed = likeService.unlike(principal.getId(), blogPostId);
+        return ResponseEntity.ok(likeState(blogPostId, false, changed));
+    }
+
+    private Map<String, Object> likeState(Long blogPostId, boolean liked, boolean changed) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("blogPostId", blogPostId);
+        body.put("liked", liked);
+        body.put("changed", changed);
+        return body;
+    }
+
     @GetMapping("/count/{blogPostId}")
     public ResponseEntity<Long> getLikeCount(@PathVariable Long blogPostId) {
         Long count = likeService.getLikeCount(blogPostId);
@@ -52,15 +98,17 @@ public class LikeController {
         return ResponseEntity.ok(hasLiked);
     }
 
+    // Posts userId liked; "likedByViewer" and the counts are from the caller's point of view
     @GetMapping("/user/{userId}/liked-posts")
-    public ResponseEntity<List<BlogPostDTO>> getLikedPosts(@PathVariable Long userId) {
+    public ResponseEntity<List<BlogPostDTO>> getLikedPosts(@PathVariable Long userId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         List<BlogPost> likedPosts = likeService.getLikedBlogPosts(userId);
 
         // Convert List<BlogPost> to List<BlogPostDTO>
         List<BlogPostDTO> likedPostDTOs = likedPosts.stream()
                 .map(post -> new BlogPostDTO(post, fileStorageService))
                 .collect(Collectors.toList());
-
+        postEnrichmentService.enrich(likedPostDTOs, principal != null ? principal.getId() : null);
 
         return ResponseEntity.ok(likedPostDTOs);
     }
@@ -0,0 +1,38 @@
+package com.project.blog_application.controllers;
+
+import com.project.blog_application.services.StreamingUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Streaming image upload. Send multipart/form-data with a "file" part; the response carries the
+ * stored filename, which can be used as a post's imageUrl.
+ */
+@RestController
+@RequestMapping("/api/uploads")
+@CrossOrigin
+public class UploadController {
+
+    private final StreamingUploadService streamingUploadService;
+
+    public UploadController(StreamingUploadService streamingUploadService) {
+        this.streamingUploadService = streamingUploadService;
+    }
+
+    // The body is read on the upload pool; the request thread is released while it streams
+    @PostMapping(consumes = "multipart/form-data", produces = "application/json")
+    @PreAuthorize("isAuthenticated()")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> upload(HttpServletRequest request) {
+        return streamingUploadService.upload(request)
+                .thenApply(stored -> ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
+                        "filename", stored.filename(),
+                        "url", stored.url(),
+                        "contentType", String.valueOf(stored.contentType()))));
+    }
+}
@@ -4,21 +4,23 @@ import com.project.blog_application.entities.BlogPost;
 import com.project.blog_application.entities.User;
 import com.project.blog_application.DTO.BlogPostDTO;
 import com.project.blog_application.DTO.UserDTO;
+import com.project.blog_application.exceptions.ServiceBusyException;
 import com.project.blog_application.services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.project.blog_application.repository.UserRepository;
+import com.project.blog_application.security.AuthenticatedUser;
+import com.project.blog_application.services.BlogPostService;
+import com.project.blog_application.services.FileDeletionQueue;
 import com.project.blog_application.services.FileStorageService;
+import com.project.blog_application.services.PostEnrichmentService;
 
 import java.util.List;
 import java.util.Map;
@@ -34,11 +36,18 @@ public class UserController {
     private final UserService userService;
     private final UserRepository userRepository;
     private final FileStorageService fileStorageService;
+    private final PostEnrichmentService postEnrichmentService;
+    private final BlogPostService blogPostService;
+    private final FileDeletionQueue fileDeletionQueue;
 
     @Autowired
     public UserController(UserService userService, UserRepository userRepository,
-            FileStorageService fileStorageService) {
+            FileStorageService fileStorageService, PostEnrichmentService postEnrichmentService,
+            BlogPostService blogPostService, FileDeletionQueue fileDeletionQueue) {
         this.fileStorageService = fileStorageService;
+        this.fileDeletionQueue = fileDeletionQueue;
+        this.blogPostService = blogPostService;
+        this.postEnrichmentService = postEnrichmentService;
         this.userRepository = userRepository;
         this.userService = userService;
     }
@@ -56,12 +65,12 @@ public class UserController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal UserDetails userDetails) {
-        if (userDetails == null) {
+    public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("You are not logged in.");
         }
 
-        User user = userRepository.findByEmail(userDetails.getUsername())
+        User user = userRepository.findById(principal.getId())
                 .orElse(null);
 
         if (user == null) {
@@ -91,18 +100,14 @@ public class UserController {
     }
 
     @GetMapping("/me/posts")
-    public ResponseEntity<List<BlogPostDTO>> getMyPosts(@AuthenticationPrincipal UserDetails userDetails) {
-        if (userDetails == null) {
+    public ResponseEntity<List<BlogPostDTO>> getMyPosts(@AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
         }
 
-        User user = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        List<BlogPostDTO> blogDTOs = user.getBlogPosts().stream()
-                .map(post -> new BlogPostDTO(post, fileStorageService))
-                .collect(Collectors.toList());
-
+        // Posts by author id straight from the token; no user row needed
+        List<BlogPostDTO> blogDTOs = blogPostService.getPostsByUserId(principal.getId());
+        postEnrichmentService.enrich(blogDTOs, principal.getId());
 
         return ResponseEntity.ok(blogDTOs);
     }
@@ -117,23 +122,20 @@ public class UserController {
             @RequestParam("profilePicture") MultipartFile profilePicture) {
 
         try {
-            // Store the profile picture in the uploads folder
-            String profilePicturePath = fileStorageService.store(profilePicture);
-
-
             // Create a new User object
             User user = new User();
             user.setUsername(username);
             user.setEmail(email);
             user.setPassword(password);
             user.setBio(bio);
-            user.setProfilePicture(profilePicturePath);
 
-            // Register the user
+            // Register the user; the service stores the profile picture
             User createdUser = userService.registerUser(user, profilePicture);
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(new UserDTO(createdUser, fileStorageService));
 
+        } catch (ServiceBusyException e) {
+            throw e; // 503 from GlobalExceptionHandler
         } catch (RuntimeException e) {
             logger.error("Registration failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
@@ -148,6 +150,8 @@ public class UserController {
             String token = userService.authenticateUser(loginUser.getUsername(), loginUser.getPassword());
             logger.info("Login successful, token generated for: {}", loginUser.getUsername());
             return ResponseEntity.ok(token);
+        } catch (ServiceBusyException e) {
+            throw e; // 503 from GlobalExceptionHandler
         } catch (RuntimeException e) {
             logger.error("Login failed for user {}: {}", loginUser.getUsername(), e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
@@ -157,36 +161,33 @@ public class UserController {
     @PutMapping("/{id}")
     public ResponseEntity<UserDTO> updateUser(
             @PathVariable Long id,
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(value = "username", required = false) String username,
             @RequestParam(value = "email", required = false) String email,
             @RequestParam(value = "bio", required = false) String bio,
             @RequestParam(value = "profilePicture", required = false) MultipartFile profilePicture) {
 
-        if (userDetails == null) {
+        if (principal == null) {
             logger.error("❌ Authentication failed: No user details found.");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        User currentUser = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        User targetUser = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Target user not found"));
-
-        boolean isSelf = currentUser.getId().equals(targetUser.getId());
-        boolean isAdmin = userDetails.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        boolean isSelf = principal.getId().equals(id);
+        boolean isAdmin = principal.isAdmin();
 
         if (!isSelf && !isAdmin) {
-            logger.warn("❌ Unauthorized attempt to update user {} by {}", id, currentUser.getUsername());
+            logger.warn("❌ Unauthorized attempt to update user {} by {}", id, principal.getId());
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(null);
         }
 
+        User targetUser = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Target user not found"));
+
         if (username != null) {
             targetUser.setUsername(username);
         }
+        boolean emailChanged = email != null && !email.equals(targetUser.getEmail());
         if (email != null) {
             targetUser.setEmail(email);
         }
@@ -194,30 +195,38 @@ public class UserController {
             targetUser.setBio(bio);
         }
 
+        String replacedPicture = null;
         if (profilePicture != null && !profilePicture.isEmpty()) {
             String profilePicturePath = fileStorageService.store(profilePicture);
 
+            replacedPicture = targetUser.getProfilePicture();
             targetUser.setProfilePicture(profilePicturePath);
         }
 
         userRepository.save(targetUser);
-        logger.info("User {} updated successfully by {}", targetUser.getUsername(), currentUser.getUsername());
+        // Only once the new picture is saved
+        fileDeletionQueue.enqueue(replacedPicture);
+        if (emailChanged) {
+            // Tokens name the user by email; make the old ones stop working
+            userService.revokeTokens(targetUser.getId());
+        }
+        logger.info("User {} updated successfully by {}", targetUser.getUsername(), principal.getId());
         return ResponseEntity.ok(new UserDTO(targetUser, fileStorageService));
 
     }
 
     @PutMapping("/me")
     public ResponseEntity<UserDTO> updateUserProfile(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(value = "username", required = false) String username,
             @RequestParam(value = "bio", required = false) String bio,
             @RequestParam(value = "profilePicture", required = false) MultipartFile profilePicture) {
 
-        if (userDetails == null) {
+        if (principal == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
         }
 
-        User user = userRepository.findByEmail(userDetails.getUsername())
+        User user = userRepository.findById(principal.getId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // Update only provided fields
@@ -229,28 +238,31 @@ public class UserController {
         }
 
         // Handle Profile Picture Upload
+        String replacedPicture = null;
         if (profilePicture != null && !profilePicture.isEmpty()) {
             String profilePicturePath = fileStorageService.store(profilePicture);
 
+            replacedPicture = user.getProfilePicture();
             user.setProfilePicture(profilePicturePath);
         }
 
         User updatedUser = userRepository.save(user);
+        fileDeletionQueue.enqueue(replacedPicture);
         return ResponseEntity.ok(new UserDTO(updatedUser, fileStorageService));
 
     }
 
     // Delete user account (Self or Admin-only)
     @DeleteMapping("/{id}")
-    public ResponseEntity<String> deleteUser(@PathVariable Long id) {
+    public ResponseEntity<String> deleteUser(@PathVariable Long id,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth == null) {
+            if (principal == null) {
                 logger.error("No authentication context found for deleting user ID: {}", id);
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
             }
 
-            String currentUsername = auth.getName();
+            String currentUsername = principal.getUsername();
             User targetUser = userService.getUserById(id);
 
             if (targetUser == null) {
@@ -258,9 +270,9 @@ public class UserController {
                 return ResponseEntity.notFound().build();
             }
 
-            boolean isSelf = currentUsername.equals(targetUser.getUsername());
-            boolean isAdmin = auth.getAuthorities().stream()
-                    .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+            // Compare ids: the principal's name is the email, not the username
+            boolean isSelf = principal.getId().equals(targetUser.getId());
+            boolean isAdmin = principal.isAdmin();
 
             if (!isSelf && !isAdmin) {
                 logger.warn("Unauthorized attempt to delete user {} by {}", id, currentUsername);
@@ -0,0 +1,41 @@
+package com.project.blog_application.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// One hourly bucket of a content metric; written by AnalyticsRollupService, never by JPA
+@Entity
+@Table(name = "analytics_hourly_rollups")
+@IdClass(AnalyticsRollup.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsRollup implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "metric", length = 16)
+    private String metric;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Column(name = "count", nullable = false)
+    private long count;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private String metric;
+        private LocalDateTime bucketStart;
+    }
+}
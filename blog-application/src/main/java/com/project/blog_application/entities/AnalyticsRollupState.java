@@ -0,0 +1,27 @@
+package com.project.blog_application.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// Per metric: hourly buckets before sealedUntil have been recomputed from the source table
+@Entity
+@Table(name = "analytics_rollup_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsRollupState implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "metric", length = 16)
+    private String metric;
+
+    @Column(name = "sealed_until", nullable = false)
+    private LocalDateTime sealedUntil;
+}
@@ -0,0 +1,27 @@
+package com.project.blog_application.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// One-time data migrations that have completed, so they are skipped on later startups
+@Entity
+@Table(name = "applied_migrations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppliedMigration implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+}
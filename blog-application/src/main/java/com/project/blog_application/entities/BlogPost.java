@@ -10,6 +10,7 @@ import java.util.Set;
 import javax.validation.constraints.NotBlank;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -20,8 +21,12 @@ import lombok.*;
 @Entity
 @Table(name = "blog_posts", indexes = {
     @Index(name = "idx_blog_post_user_id", columnList = "user_id"),
-    @Index(name = "idx_blog_post_created_at", columnList = "created_at")
+    @Index(name = "idx_blog_post_created_at", columnList = "created_at"),
+    // Every entity query filters on is_deleted; feeds then order by created_at
+    @Index(name = "idx_blog_post_deleted_created_at", columnList = "is_deleted, created_at")
 })
+// Soft-deleted posts are invisible to every entity query and association; PostPurgeService removes them later
+@SQLRestriction("is_deleted = false")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -61,6 +66,13 @@ public class BlogPost implements Serializable {
     @Column(name = "is_deleted", nullable = false)
     private boolean deleted = false;
 
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    // Denormalized comment total, maintained by CommentService
+    @Column(name = "comment_count", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long commentCount = 0;
+
     @OneToMany(mappedBy = "blogPost", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     private List<Comment> comments = new ArrayList<>();
@@ -4,8 +4,10 @@ import java.io.Serializable;
 import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -23,7 +25,8 @@ import lombok.ToString;
 @Table(name = "comments", indexes = {
     @Index(name = "idx_comment_user_id", columnList = "user_id"),
     @Index(name = "idx_comment_blog_post_id", columnList = "blog_post_id"),
-    @Index(name = "idx_comment_created_at", columnList = "created_at")
+    @Index(name = "idx_comment_created_at", columnList = "created_at"),
+    @Index(name = "idx_comment_root_path", columnList = "root_id, path")
 })
 @Getter
 @Setter
@@ -52,4 +55,23 @@ public class Comment implements Serializable {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Comment this one replies to, null for top-level comments. No FK constraint: subtrees are
+    // deleted by path prefix in a single statement, so rows may go in any order.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @ToString.Exclude
+    private Comment parent;
+
+    // Id of the top-level comment of this thread (own id for top-level comments)
+    @Column(name = "root_id")
+    private Long rootId;
+
+    // Materialized path: zero-padded ids from the root down to this comment, each followed by '/'.
+    // Digits and '/' only, so ASCII: one byte per char keeps (root_id, path) under InnoDB's 3072-byte key limit
+    @Column(name = "path", length = 760, columnDefinition = "VARCHAR(760) CHARACTER SET ascii")
+    private String path;
+
+    @Column(name = "depth", nullable = false, columnDefinition = "INT DEFAULT 0")
+    private int depth;
+
 }
@@ -0,0 +1,41 @@
+package com.project.blog_application.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// A content-addressed upload and how many posts/users reference it; maintained by FileStorageService
+@Entity
+@Table(name = "file_blobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileBlob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Stored name relative to the upload dir, e.g. blobs/ab/cd/abcd...ef.png
+    @Id
+    @Column(name = "name", length = 200)
+    private String name;
+
+    @Column(name = "sha256", length = 64, nullable = false)
+    private String sha256;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private long refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Last time an upload added a reference; the orphan sweeper leaves recently touched blobs alone
+    @Column(name = "touched_at")
+    private LocalDateTime touchedAt;
+}
@@ -0,0 +1,42 @@
+package com.project.blog_application.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// An upload to release once the row that owned it is gone; written in the owner's transaction, drained by FileDeletionQueue
+@Entity
+@Table(name = "pending_file_deletions", indexes = {
+        @Index(name = "idx_pending_file_deletion_due", columnList = "next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingFileDeletion implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Stored name or public URL, as the owning row held it
+    @Column(name = "filename", length = 255, nullable = false)
+    private String filename;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,12 @@
+package com.project.blog_application.exceptions;
+
+// Thrown for malformed or empty upload requests; mapped to 400
+public class InvalidUploadException extends RuntimeException {
+    public InvalidUploadException(String message) {
+        super(message);
+    }
+
+    public InvalidUploadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
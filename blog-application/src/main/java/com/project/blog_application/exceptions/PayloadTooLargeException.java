@@ -0,0 +1,8 @@
+package com.project.blog_application.exceptions;
+
+// Thrown when an upload exceeds its size limit while it is being streamed; mapped to 413
+public class PayloadTooLargeException extends RuntimeException {
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -1,14 +1,18 @@
 package com.project.blog_application.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.project.blog_application.entities.BlogPost;
 
 import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -54,5 +58,30 @@ public interface BlogPostRepository extends JpaRepository<BlogPost, Long> {
     // Count posts by user ID - Performance optimization to avoid N+1 query problem
     @Query("SELECT COUNT(p) FROM BlogPost p WHERE p.user.id = :userId")
     Long countByUserId(@Param("userId") Long userId);
+
+    // Denormalized comment counter - bulk update, does not touch updated_at
+    @Modifying
+    @Query("UPDATE BlogPost p SET p.commentCount = p.commentCount + :delta WHERE p.id = :id")
+    int adjustCommentCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Query("SELECT p.commentCount FROM BlogPost p WHERE p.id = :id")
+    Optional<Long> findCommentCountById(@Param("id") Long id);
+
+    // Comment counters for a page of posts: rows of (blogPostId, commentCount)
+    @Query("SELECT p.id, p.commentCount FROM BlogPost p WHERE p.id IN :ids")
+    List<Object[]> findCommentCounts(@Param("ids") Collection<Long> ids);
+
+    // Soft delete: a single-row flag flip, the post's rows are purged later; returns 0 if already deleted
+    @Modifying
+    @Query(value = "UPDATE blog_posts SET is_deleted = 1, deleted_at = :now WHERE id = :id AND is_deleted = 0",
+            nativeQuery = true)
+    int softDelete(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Recompute the counter from the comments table (startup migration)
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE blog_posts p SET p.comment_count = "
+            + "(SELECT COUNT(*) FROM comments c WHERE c.blog_post_id = p.id)", nativeQuery = true)
+    int recomputeCommentCounts();
     
 }
@@ -1,12 +1,19 @@
 package com.project.blog_application.repository;
 
 import org.springframework.stereotype.Repository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.project.blog_application.DTO.CommentDTO;
+import com.project.blog_application.DTO.CommentNodeView;
 import com.project.blog_application.entities.Comment;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -28,8 +35,84 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     @Query("SELECT c FROM Comment c JOIN FETCH c.user JOIN FETCH c.blogPost ORDER BY c.createdAt DESC")
     List<Comment> findTop10ByOrderByCreatedAtDesc();
 
+    // Comments still visible: those on posts that are not soft-deleted (awaiting purge)
+    @Query("SELECT COUNT(c) FROM Comment c WHERE c.blogPost.deleted = false")
+    long countOnLivePosts();
+
     // Count comments by user ID - Performance optimization to avoid N+1 query problem
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.user.id = :userId")
     Long countByUserId(@Param("userId") Long userId);
-    
+
+    // Keyset pages of a post's comments as DTOs in one joined query (no lazy user/post loads).
+    // Ids are insertion-ordered, and (blog_post_id, id) is covered by idx_comment_blog_post_id.
+    @Query("SELECT new com.project.blog_application.DTO.CommentDTO(c.id, c.content, u.id, u.username, p.id, p.title, c.createdAt) "
+            + "FROM Comment c JOIN c.user u JOIN c.blogPost p "
+            + "WHERE p.id = :blogPostId AND c.id < :beforeId ORDER BY c.id DESC")
+    List<CommentDTO> findPageNewestFirst(@Param("blogPostId") Long blogPostId, @Param("beforeId") Long beforeId,
+            Pageable pageable);
+
+    @Query("SELECT new com.project.blog_application.DTO.CommentDTO(c.id, c.content, u.id, u.username, p.id, p.title, c.createdAt) "
+            + "FROM Comment c JOIN c.user u JOIN c.blogPost p "
+            + "WHERE p.id = :blogPostId AND c.id > :afterId ORDER BY c.id ASC")
+    List<CommentDTO> findPageOldestFirst(@Param("blogPostId") Long blogPostId, @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // All comments of a post as DTOs, oldest first
+    @Query("SELECT new com.project.blog_application.DTO.CommentDTO(c.id, c.content, u.id, u.username, p.id, p.title, c.createdAt) "
+            + "FROM Comment c JOIN c.user u JOIN c.blogPost p WHERE p.id = :blogPostId ORDER BY c.id ASC")
+    List<CommentDTO> findDTOsByBlogPostId(@Param("blogPostId") Long blogPostId);
+
+    // Paginated admin listing
+    @Query(value = "SELECT new com.project.blog_application.DTO.CommentDTO(c.id, c.content, u.id, u.username, p.id, p.title, c.createdAt) "
+            + "FROM Comment c JOIN c.user u JOIN c.blogPost p ORDER BY c.id DESC",
+            countQuery = "SELECT COUNT(c) FROM Comment c")
+    Page<CommentDTO> findAllDTOs(Pageable pageable);
+
+    // ---- Threads (materialized path) ----
+    // A comment's subtree is every row of its thread whose path starts with its own path; with
+    // idx_comment_root_path that is one index range scan, already in depth-first (path) order.
+    // Native SQL skips BlogPost's @SQLRestriction, so these join blog_posts to hide soft-deleted posts.
+
+    @Query(value = "SELECT c.id AS id, c.content AS content, c.user_id AS userId, u.username AS username, "
+            + "c.blog_post_id AS blogPostId, c.parent_id AS parentId, c.path AS path, c.depth AS depth, c.created_at AS createdAt "
+            + "FROM comments c JOIN users u ON u.id = c.user_id "
+            + "JOIN blog_posts p ON p.id = c.blog_post_id AND p.is_deleted = 0 "
+            + "WHERE c.root_id = :rootId AND c.path LIKE CONCAT(:pathPrefix, '%') "
+            + "ORDER BY c.path LIMIT :maxNodes", nativeQuery = true)
+    List<CommentNodeView> findSubtree(@Param("rootId") Long rootId, @Param("pathPrefix") String pathPrefix,
+            @Param("maxNodes") int maxNodes);
+
+    // Keyset page of top-level comments, newest first
+    @Query(value = "SELECT c.id AS id, c.content AS content, c.user_id AS userId, u.username AS username, "
+            + "c.blog_post_id AS blogPostId, c.parent_id AS parentId, c.path AS path, c.depth AS depth, c.created_at AS createdAt "
+            + "FROM comments c JOIN users u ON u.id = c.user_id "
+            + "JOIN blog_posts p ON p.id = c.blog_post_id AND p.is_deleted = 0 "
+            + "WHERE c.blog_post_id = :blogPostId AND c.parent_id IS NULL AND c.id < :beforeId "
+            + "ORDER BY c.id DESC LIMIT :limit", nativeQuery = true)
+    List<CommentNodeView> findTopLevelPage(@Param("blogPostId") Long blogPostId, @Param("beforeId") Long beforeId,
+            @Param("limit") int limit);
+
+    // First :perThread replies (depth-first) of each given thread
+    @Query(value = "SELECT r.id AS id, r.content AS content, r.user_id AS userId, u.username AS username, "
+            + "r.blog_post_id AS blogPostId, r.parent_id AS parentId, r.path AS path, r.depth AS depth, r.created_at AS createdAt "
+            + "FROM (SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.root_id ORDER BY c.path) AS rn "
+            + "      FROM comments c WHERE c.root_id IN (:rootIds) AND c.depth > 0) r "
+            + "JOIN users u ON u.id = r.user_id "
+            + "JOIN blog_posts p ON p.id = r.blog_post_id AND p.is_deleted = 0 "
+            + "WHERE r.rn <= :perThread ORDER BY r.path", nativeQuery = true)
+    List<CommentNodeView> findFirstReplies(@Param("rootIds") Collection<Long> rootIds,
+            @Param("perThread") int perThread);
+
+    // Removes a comment and all of its replies; returns the number of rows deleted
+    @Modifying
+    @Query(value = "DELETE FROM comments WHERE root_id = :rootId AND path LIKE CONCAT(:pathPrefix, '%')",
+            nativeQuery = true)
+    int deleteSubtree(@Param("rootId") Long rootId, @Param("pathPrefix") String pathPrefix);
+
+    // Gives comments created before threading a top-level path
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE comments SET root_id = id, depth = 0, path = CONCAT(LPAD(id, 12, '0'), '/') "
+            + "WHERE path IS NULL AND parent_id IS NULL", nativeQuery = true)
+    int backfillTopLevelPaths();
 }
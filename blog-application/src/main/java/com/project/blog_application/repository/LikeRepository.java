@@ -1,8 +1,11 @@
 package com.project.blog_application.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -31,6 +34,17 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
     // Delete a like by user and blog post
     void deleteByBlogPostIdAndUserId(Long blogPostId, Long userId);
 
+    // Single-statement like: the unique (user_id, blog_post_id) key makes a repeat a no-op, returns rows inserted
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO likes (user_id, blog_post_id, created_at) VALUES (:userId, :blogPostId, NOW())",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("blogPostId") Long blogPostId);
+
+    // Single-statement unlike by foreign keys, returns rows deleted
+    @Modifying
+    @Query("DELETE FROM Like l WHERE l.user.id = :userId AND l.blogPost.id = :blogPostId")
+    int deleteIfPresent(@Param("userId") Long userId, @Param("blogPostId") Long blogPostId);
+
     // Find blog posts liked by a specific user
     @Query("SELECT l.blogPost FROM Like l WHERE l.user.id = :userId")
     List<BlogPost> findBlogPostsLikedByUser(@Param("userId") Long userId);
@@ -38,4 +52,16 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
     // Get Users who liked a specific blog post
     @Query("SELECT L.user FROM Like L WHERE L.blogPost.id = :blogPostId")
     List<User> findUsersByBlogPostId(@Param("blogPostId") Long blogPostId);
+
+    // Like counts for a page of posts in one GROUP BY: rows of (blogPostId, count)
+    @Query("SELECT l.blogPost.id, COUNT(l) FROM Like l WHERE l.blogPost.id IN :blogPostIds GROUP BY l.blogPost.id")
+    List<Object[]> countByBlogPostIds(@Param("blogPostIds") Collection<Long> blogPostIds);
+
+    // Which of the given posts the user has liked
+    @Query("SELECT l.blogPost.id FROM Like l WHERE l.user.id = :userId AND l.blogPost.id IN :blogPostIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("blogPostIds") Collection<Long> blogPostIds);
+
+    // Keyset-paged (id, userId, blogPostId) rows for streaming the like graph into memory; skips soft-deleted posts
+    @Query("SELECT l.id, l.user.id, l.blogPost.id FROM Like l WHERE l.id > :afterId AND l.blogPost.deleted = false ORDER BY l.id")
+    List<Object[]> findEdgesAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -1,9 +1,11 @@
 package com.project.blog_application.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.project.blog_application.entities.User;
 
@@ -32,4 +34,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     // Find top 10 users by creation date
     List<User> findTop10ByOrderByCreatedAtDesc();
+
+    // Replaces a password hash only if it is still the one that was verified (rehash on login)
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int replacePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
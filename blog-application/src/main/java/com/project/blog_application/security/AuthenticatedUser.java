@@ -0,0 +1,103 @@
+package com.project.blog_application.security;
+
+import com.project.blog_application.entities.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Principal of an authenticated request: user id, email and role.
+ *
+ * Built directly from verified token claims, so controllers get the caller's id without a
+ * repository lookup. The username is the email, as with the previous UserDetails principal.
+ */
+public final class AuthenticatedUser implements UserDetails {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final String email;
+    private final Role role;
+    private final String password; // only set when loaded from the DB
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long id, String email, Role role, String password) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.password = password;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    /**
+     * Principal for a verified token that carries a user id claim.
+     */
+    public static AuthenticatedUser fromToken(VerifiedToken token) {
+        return new AuthenticatedUser(token.userId(), token.email(), roleOf(token.role()), null);
+    }
+
+    // "ROLE_ADMIN" -> ADMIN; unknown or missing roles get the least privilege
+    private static Role roleOf(String roleClaim) {
+        if (roleClaim != null) {
+            String name = roleClaim.startsWith("ROLE_") ? roleClaim.substring(5) : roleClaim;
+            for (Role role : Role.values()) {
+                if (role.name().equals(name)) {
+                    return role;
+                }
+            }
+        }
+        return Role.USER;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public boolean isAdmin() {
+        return role == Role.ADMIN;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AuthenticatedUser other)) return false;
+        return Objects.equals(id, other.id) && Objects.equals(email, other.email);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, email);
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{id=" + id + ", email=" + email + ", role=" + role + "}";
+    }
+}
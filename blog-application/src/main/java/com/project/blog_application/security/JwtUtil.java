@@ -1,8 +1,12 @@
 package com.project.blog_application.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,47 +16,149 @@ import com.project.blog_application.entities.Role;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class for handling JSON Web Token (JWT) operations such as generation, validation,
  * and extraction of claims. This class is a Spring component and uses configuration properties
  * for the secret key and expiration time.
+ *
+ * The signing key and parser are built once at startup; both are immutable and shared by all
+ * request threads. Tokens are verified once per request into a {@link VerifiedToken}, and the
+ * SHA-256 hashes of verified tokens are cached until expiry so repeat requests from the same
+ * session skip signature verification.
  */
 @Component
 public class JwtUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
 
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
     @Value("${jwt.secret}")
     private String SECRET_KEY; // Secret key injected from application.properties
 
-    @Value("${jwt.expiration}")
-    private long EXPIRATION_TIME; // Token expiration time in milliseconds, injected from application.properties
+    @Value("${jwt.access-expiration:${jwt.expiration}}")
+    private long EXPIRATION_TIME; // Access token lifetime in milliseconds, injected from application.properties
+
+    @Value("${jwt.refresh-expiration:604800000}")
+    private long REFRESH_EXPIRATION_TIME; // Refresh token lifetime in milliseconds
+
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+
+    @Value("${jwt.verified-cache.max-entries:10000}")
+    private int verifiedCacheMaxEntries; // 0 disables the verified-token cache
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Token hash -> verified claims
+    private final Map<String, VerifiedToken> verifiedCache = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        // Convert the secret key string to a SecretKey object using HMAC-SHA algorithm
+        signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey) // Set the key for signature verification
+                .build();
+        logger.info("JWT signing key and parser initialized (secret length: {}, verified cache size: {})",
+                SECRET_KEY.length(), verifiedCacheMaxEntries);
+    }
 
     /**
-     * Generates a JWT token for a given email and role.
+     * Generates an access token for a given user.
      * 
+     * @param userId The user's id, included as the "uid" claim so requests need no user lookup.
      * @param email The user's email to be set as the subject of the token.
      * @param role  The user's role, included as a claim with "ROLE_" prefix for Spring Security compatibility.
      * @return A signed JWT token as a String.
      */
-    public String generateToken(String email, Role role) {
-        // Convert the secret key string to a SecretKey object using HMAC-SHA algorithm
-        SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
-        logger.info("Generating token for email: {} with secret (length: {}) and expiration: {}", 
-                    email, SECRET_KEY.length(), EXPIRATION_TIME);
+    public String generateToken(Long userId, String email, Role role) {
+        logger.debug("Generating access token for email: {} with expiration: {}", email, EXPIRATION_TIME);
+        return buildToken(userId, email, role, TYPE_ACCESS, EXPIRATION_TIME);
+    }
+
+    /**
+     * Generates a refresh token for a given user. Refresh tokens are only accepted by the refresh
+     * endpoint, never as request credentials.
+     *
+     * @return A signed JWT refresh token as a String.
+     */
+    public String generateRefreshToken(Long userId, String email, Role role) {
+        logger.debug("Generating refresh token for email: {} with expiration: {}", email, REFRESH_EXPIRATION_TIME);
+        return buildToken(userId, email, role, TYPE_REFRESH, REFRESH_EXPIRATION_TIME);
+    }
 
+    private String buildToken(Long userId, String email, Role role, String type, long lifetimeMs) {
         // Build and sign the JWT token
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString()) // Token id, the handle for revocation
                 .setSubject(email) // Set email as the subject (used for identification)
+                .claim("uid", userId) // User id for the claims-based principal
                 .claim("role", "ROLE_" + role.name()) // Add role claim with Spring Security prefix
+                .claim("typ", type) // access or refresh
                 .setIssuedAt(new Date()) // Set the issuance timestamp
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME)) // Set expiration time
-                .signWith(key) // Sign the token with the secret key
+                .setExpiration(new Date(System.currentTimeMillis() + lifetimeMs)) // Set expiration time
+                .signWith(signingKey) // Sign the token with the secret key
                 .compact(); // Generate the compact string representation
     }
 
+    /**
+     * Verifies a JWT token's signature and expiry and returns its claims. Tokens verified before
+     * are answered from the cache until they expire.
+     *
+     * @param token The JWT token to verify.
+     * @return The verified claims.
+     * @throws io.jsonwebtoken.JwtException if the token is invalid, expired or cannot be parsed.
+     */
+    public VerifiedToken verify(String token) {
+        Instant now = Instant.now();
+        String hash = verifiedCacheMaxEntries > 0 ? hash(token) : null;
+        if (hash != null) {
+            VerifiedToken cached = verifiedCache.get(hash);
+            if (cached != null) {
+                if (!cached.isExpired(now)) {
+                    return cached;
+                }
+                verifiedCache.remove(hash, cached);
+            }
+        }
+
+        Claims claims = getClaims(token);
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            throw new JwtException("Token has no subject or expiration");
+        }
+        VerifiedToken verified = new VerifiedToken(
+                claims.getId(),
+                claims.get("typ", String.class) != null ? claims.get("typ", String.class) : TYPE_ACCESS,
+                claims.get("uid", Long.class),
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : now,
+                claims.getExpiration().toInstant());
+
+        if (hash != null) {
+            cacheVerified(hash, verified, now);
+        }
+        return verified;
+    }
+
     /**
      * Validates a JWT token by checking if it matches the provided email and is not expired.
      * 
@@ -62,13 +168,9 @@ public class JwtUtil {
      */
     public boolean validateToken(String token, String email) {
         try {
-            String extractedEmail = extractEmail(token); // Extract the email from the token
-            boolean isExpired = isTokenExpired(token); // Check if the token is expired
-            logger.debug("Validating token: email match={} (extracted: {}), expired={}", 
-                         extractedEmail.equals(email), extractedEmail, isExpired);
-            return extractedEmail.equals(email) && !isExpired; // Return true if email matches and token is valid
+            return verify(token).email().equals(email); // Signature and expiry are checked by verify
         } catch (Exception e) {
-            logger.error("Token validation failed: {}", e.getMessage()); // Log any parsing or validation errors
+            logger.debug("Token validation failed: {}", e.getMessage()); // Log any parsing or validation errors
             return false; // Return false if token parsing fails (e.g., malformed, invalid signature)
         }
     }
@@ -80,7 +182,7 @@ public class JwtUtil {
      * @return The email stored in the token's subject field.
      */
     public String extractEmail(String token) {
-        return getClaims(token).getSubject(); // Retrieve the subject (email) from the token's claims
+        return verify(token).email();
     }
 
     /**
@@ -90,26 +192,42 @@ public class JwtUtil {
      * @return true if the token is expired, false otherwise.
      */
     public boolean isTokenExpired(String token) {
-        return getClaims(token).getExpiration().before(new Date()); // Compare expiration date with current time
+        try {
+            return verify(token).isExpired(Instant.now());
+        } catch (ExpiredJwtException e) {
+            return true;
+        }
     }
 
     /**
-     * Parses the claims (payload) from a JWT token.
+     * Parses the claims (payload) from a JWT token with the shared parser.
      * 
      * @param token The JWT token to parse.
      * @return The Claims object containing the token's payload.
      * @throws io.jsonwebtoken.JwtException if the token is invalid or cannot be parsed.
      */
     private Claims getClaims(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8)); // Recreate the signing key
-        logger.debug("Extracting claims with secret (length: {})", SECRET_KEY.length());
-
-        // Parse the token and return its claims
-        return Jwts.parserBuilder()
-                .setSigningKey(key) // Set the key for signature verification
-                .build()
-                .parseClaimsJws(token) // Parse the signed JWT
-                .getBody(); // Return the claims (payload)
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    // Adds a verified token, first dropping expired entries (and then arbitrary ones) when full
+    private void cacheVerified(String hash, VerifiedToken verified, Instant now) {
+        if (verifiedCache.size() >= verifiedCacheMaxEntries) {
+            verifiedCache.values().removeIf(entry -> entry.isExpired(now));
+            Iterator<String> it = verifiedCache.keySet().iterator();
+            int target = verifiedCacheMaxEntries * 9 / 10;
+            while (verifiedCache.size() >= target && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        verifiedCache.put(hash, verified);
+    }
+
+    private static String hash(String token) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
     }
 
     /**
@@ -119,7 +237,7 @@ public class JwtUtil {
      * @return The role as a String (e.g., "ROLE_USER" or "ROLE_ADMIN"), or null if not present.
      */
     public String getRole(String token) {
-        return getClaims(token).get("role", String.class); // Retrieve the role claim
+        return verify(token).role(); // Retrieve the role claim
     }
 
     /**
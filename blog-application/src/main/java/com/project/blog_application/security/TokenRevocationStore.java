@@ -0,0 +1,92 @@
+package com.project.blog_application.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked token ids (logout, refresh rotation, admin revocation).
+ *
+ * The shared copy is a Redis sorted set of token ids scored by the token's expiry, so everything
+ * that can no longer be presented is pruned with one ZREMRANGEBYSCORE. Each node mirrors it in a
+ * local hash set, which is what {@link #isRevoked(String)} checks on every request. The set only
+ * ever holds ids of unexpired tokens, so it stays small.
+ */
+@Component
+public class TokenRevocationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+    private static final String REDIS_KEY = "auth:revoked-tokens";
+
+    private final StringRedisTemplate redisTemplate;
+
+    // jti -> expiry (epoch seconds)
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    public TokenRevocationStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Revokes the token and returns whether this call did it, false when it was already revoked
+     * (here or, via ZADD NX, on another node). Refresh rotation uses that as its reuse check.
+     */
+    public boolean revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || !expiresAt.isAfter(Instant.now())) {
+            return false;
+        }
+        boolean first = revoked.putIfAbsent(tokenId, expiresAt.getEpochSecond()) == null;
+        try {
+            Boolean added = redisTemplate.opsForZSet().addIfAbsent(REDIS_KEY, tokenId, expiresAt.getEpochSecond());
+            return first && Boolean.TRUE.equals(added);
+        } catch (RuntimeException e) {
+            // Redis down: this node's copy is the only record left
+            logger.warn("Could not publish revocation of token {}: {}", tokenId, e.getMessage());
+            return first;
+        }
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.containsKey(tokenId);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    // Prunes expired ids and pulls revocations made on other nodes
+    @Scheduled(fixedDelayString = "${auth.revocation.refresh-interval-ms:5000}")
+    public void refresh() {
+        long now = Instant.now().getEpochSecond();
+        try {
+            redisTemplate.opsForZSet().removeRangeByScore(REDIS_KEY, Double.NEGATIVE_INFINITY, now);
+            Set<ZSetOperations.TypedTuple<String>> shared = redisTemplate.opsForZSet().rangeWithScores(REDIS_KEY, 0, -1);
+            if (shared != null) {
+                for (ZSetOperations.TypedTuple<String> entry : shared) {
+                    if (entry.getValue() != null && entry.getScore() != null) {
+                        revoked.putIfAbsent(entry.getValue(), entry.getScore().longValue());
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Token revocation refresh skipped: {}", e.getMessage());
+        }
+        revoked.values().removeIf(expiry -> expiry <= now);
+    }
+}
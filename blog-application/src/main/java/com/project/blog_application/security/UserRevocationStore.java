@@ -0,0 +1,92 @@
+package com.project.blog_application.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user "tokens issued before" cut-offs.
+ *
+ * Claims-based principals are never re-read from the DB, so a role change, email change or
+ * account deletion records a cut-off here and tokens issued before it are rejected. The map is
+ * tiny (one entry per affected user, dropped once every older token has expired), checked in
+ * memory on each request, and shared between nodes through a Redis hash that is re-read on a
+ * fixed delay. Redis being unavailable only delays propagation to other nodes.
+ */
+@Component
+public class UserRevocationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserRevocationStore.class);
+
+    private static final String REDIS_KEY = "auth:user-tokens-revoked-before";
+
+    private final StringRedisTemplate redisTemplate;
+    private final long tokenLifetimeMs;
+
+    // userId -> epoch second; tokens with an earlier issued-at are rejected
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    public UserRevocationStore(
+            StringRedisTemplate redisTemplate,
+            @Value("${jwt.access-expiration:${jwt.expiration}}") long accessLifetimeMs,
+            @Value("${jwt.refresh-expiration:604800000}") long refreshLifetimeMs
+    ) {
+        this.redisTemplate = redisTemplate;
+        // A cut-off matters as long as any token issued before it can still be presented
+        this.tokenLifetimeMs = Math.max(accessLifetimeMs, refreshLifetimeMs);
+    }
+
+    /**
+     * Rejects all of the user's tokens issued before now. Token issued-at has second precision,
+     * so the cut-off is the current second: a token issued right after, in the same second, stays valid.
+     */
+    public void revokeAll(long userId) {
+        long cutoff = Instant.now().getEpochSecond();
+        revokedBefore.merge(userId, cutoff, Math::max);
+        try {
+            redisTemplate.opsForHash().put(REDIS_KEY, Long.toString(userId), Long.toString(cutoff));
+        } catch (RuntimeException e) {
+            logger.warn("Could not publish token revocation for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    public boolean isRevoked(long userId, Instant issuedAt) {
+        Long cutoff = revokedBefore.get(userId);
+        return cutoff != null && issuedAt.getEpochSecond() < cutoff;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    // Pulls cut-offs recorded by other nodes and drops the ones no live token can predate
+    @Scheduled(fixedDelayString = "${auth.revocation.refresh-interval-ms:5000}")
+    public void refresh() {
+        long expiredBefore = Instant.now().minusMillis(tokenLifetimeMs).getEpochSecond();
+        try {
+            Map<Object, Object> shared = redisTemplate.opsForHash().entries(REDIS_KEY);
+            for (Map.Entry<Object, Object> entry : shared.entrySet()) {
+                long userId = Long.parseLong(entry.getKey().toString());
+                long cutoff = Long.parseLong(entry.getValue().toString());
+                if (cutoff < expiredBefore) {
+                    redisTemplate.opsForHash().delete(REDIS_KEY, entry.getKey());
+                } else {
+                    revokedBefore.merge(userId, cutoff, Math::max);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Token revocation refresh skipped: {}", e.getMessage());
+        }
+        revokedBefore.values().removeIf(cutoff -> cutoff < expiredBefore);
+    }
+}
@@ -0,0 +1,26 @@
+package com.project.blog_application.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiry have been checked. Immutable, so one instance can be
+ * shared between requests through the verified-token cache.
+ *
+ * @param tokenId   the "jti" claim, or null for tokens issued before it existed
+ * @param type      "access" or "refresh"
+ * @param userId    the "uid" claim, or null for tokens issued before it existed
+ * @param email     the subject of the token
+ * @param role      the role claim, e.g. "ROLE_USER"
+ * @param issuedAt  when the token was issued
+ * @param expiresAt when the token stops being valid
+ */
+public record VerifiedToken(String tokenId, String type, Long userId, String email, String role, Instant issuedAt, Instant expiresAt) {
+
+    public boolean isRefreshToken() {
+        return JwtUtil.TYPE_REFRESH.equals(type);
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,256 @@
+package com.project.blog_application.services;
+
+import com.project.blog_application.DTO.RecentActivityDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Recent platform activity (new posts, comments and members) in a fixed-size lock-free ring buffer.
+ *
+ * Writers claim a sequence number and publish into slot {@code seq % capacity}; readers walk back
+ * from the newest sequence and skip slots that are not yet published or already overwritten. Reads
+ * are constant-time and never touch the database. Writers only wait while the buffer is being seeded.
+ *
+ * Events are also appended to a Redis stream, which every node polls, so activity recorded on one
+ * node shows up on the others. Events carry the origin node id so a node skips its own.
+ */
+@Component
+public class ActivityFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityFeed.class);
+
+    private static final String STREAM_KEY = "activity:stream";
+
+    private record Slot(long seq, RecentActivityDTO activity) {
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean shareEnabled;
+    private final long streamMaxLength;
+    private final int capacity;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final AtomicLong nextSeq = new AtomicLong();
+    // Appenders share the read side; seed takes the write side so no append lands mid-reset
+    private final ReadWriteLock seedLock = new ReentrantReadWriteLock();
+    private volatile boolean seeded = false;
+
+    // Last stream entry seen by this node; null until the stream position is known
+    private volatile String lastStreamId;
+
+    public ActivityFeed(
+            StringRedisTemplate redisTemplate,
+            @Value("${activity.feed.capacity:100}") int capacity,
+            @Value("${activity.feed.redis-stream.enabled:true}") boolean shareEnabled,
+            @Value("${activity.feed.redis-stream.max-length:1000}") long streamMaxLength
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.capacity = Math.max(1, capacity);
+        this.shareEnabled = shareEnabled;
+        this.streamMaxLength = streamMaxLength;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * Seeds the buffer with activity loaded from the DB, oldest first. Events appended while the
+     * seed query ran are kept as the newest, unless they are already among the seeded rows.
+     */
+    public void seed(List<RecentActivityDTO> oldestFirst) {
+        LocalDateTime newestSeeded = oldestFirst.stream()
+                .map(RecentActivityDTO::getTimestamp)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+
+        seedLock.writeLock().lock();
+        try {
+            List<RecentActivityDTO> live = latest(capacity);
+            nextSeq.set(0);
+            for (int i = 0; i < capacity; i++) {
+                slots.set(i, null);
+            }
+            oldestFirst.forEach(this::store);
+            for (int i = live.size() - 1; i >= 0; i--) {
+                RecentActivityDTO activity = live.get(i);
+                // Committed before the seed query read its rows
+                if (newestSeeded != null && activity.getTimestamp() != null
+                        && !activity.getTimestamp().isAfter(newestSeeded)) {
+                    continue;
+                }
+                store(activity);
+            }
+            seeded = true;
+        } finally {
+            seedLock.writeLock().unlock();
+        }
+        positionStream();
+    }
+
+    public static RecentActivityDTO postActivity(String title, LocalDateTime at) {
+        return new RecentActivityDTO("BlogPost", "New story: " + title, at);
+    }
+
+    public static RecentActivityDTO commentActivity(String username, LocalDateTime at) {
+        return new RecentActivityDTO("Comment", "New feedback by " + (username != null ? username : "Anonymous"), at);
+    }
+
+    public static RecentActivityDTO memberActivity(String username, LocalDateTime at) {
+        return new RecentActivityDTO("User", "New member: " + username, at);
+    }
+
+    // Records an event once the current transaction commits and publishes it to the other nodes
+    public void record(RecentActivityDTO activity) {
+        AfterCommit.run(() -> {
+            appendLocal(activity);
+            publish(activity);
+        });
+    }
+
+    // Newest first, at most limit events
+    public List<RecentActivityDTO> latest(int limit) {
+        List<RecentActivityDTO> result = new ArrayList<>(Math.min(limit, capacity));
+        long newest = nextSeq.get() - 1;
+        long oldest = Math.max(0, newest - capacity + 1);
+        for (long seq = newest; seq >= oldest && result.size() < limit; seq--) {
+            Slot slot = slots.get(index(seq));
+            // Not yet published, or already overwritten by a newer event
+            if (slot != null && slot.seq() == seq) {
+                result.add(slot.activity());
+            }
+        }
+        return result;
+    }
+
+    // Sequence the next event will get; pass it to since() to read only what arrives later
+    public long headSequence() {
+        return nextSeq.get();
+    }
+
+    /**
+     * Adds events from fromSeq onwards to into, oldest first, and returns the sequence to resume from.
+     * Stops early at a slot whose writer has claimed it but not yet published, so nothing is skipped.
+     */
+    public long since(long fromSeq, List<RecentActivityDTO> into) {
+        long head = nextSeq.get();
+        for (long seq = Math.max(fromSeq, Math.max(0, head - capacity)); seq < head; seq++) {
+            Slot slot = slots.get(index(seq));
+            if (slot == null || slot.seq() < seq) {
+                return seq;
+            }
+            if (slot.seq() == seq) {
+                into.add(slot.activity());
+            }
+        }
+        return head;
+    }
+
+    private void appendLocal(RecentActivityDTO activity) {
+        seedLock.readLock().lock();
+        try {
+            store(activity);
+        } finally {
+            seedLock.readLock().unlock();
+        }
+    }
+
+    private void store(RecentActivityDTO activity) {
+        long seq = nextSeq.getAndIncrement();
+        slots.set(index(seq), new Slot(seq, activity));
+    }
+
+    private int index(long seq) {
+        return (int) (seq % capacity);
+    }
+
+    private void publish(RecentActivityDTO activity) {
+        if (!shareEnabled) {
+            return;
+        }
+        try {
+            redisTemplate.opsForStream().add(StreamRecords.string(Map.of(
+                    "node", nodeId,
+                    "type", activity.getType(),
+                    "description", activity.getDescription(),
+                    "timestamp", String.valueOf(activity.getTimestamp())
+            )).withStreamKey(STREAM_KEY));
+            redisTemplate.opsForStream().trim(STREAM_KEY, streamMaxLength, true);
+        } catch (RuntimeException e) {
+            logger.debug("Activity publish skipped: {}", e.getMessage());
+        }
+    }
+
+    // Starts reading after the newest existing stream entry; the DB seed already covers older ones
+    private void positionStream() {
+        if (!shareEnabled) {
+            return;
+        }
+        try {
+            List<MapRecord<String, Object, Object>> newest = redisTemplate.opsForStream()
+                    .reverseRange(STREAM_KEY, Range.unbounded(), Limit.limit().count(1));
+            lastStreamId = newest == null || newest.isEmpty() ? "0-0" : newest.get(0).getId().getValue();
+        } catch (RuntimeException e) {
+            logger.debug("Activity stream unavailable: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${activity.feed.redis-stream.poll-interval-ms:1000}")
+    public void pollStream() {
+        if (!shareEnabled || !seeded) {
+            return;
+        }
+        if (lastStreamId == null) {
+            positionStream();
+            return;
+        }
+        try {
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                    StreamReadOptions.empty().count(100),
+                    StreamOffset.create(STREAM_KEY, ReadOffset.from(lastStreamId)));
+            if (records == null) {
+                return;
+            }
+            for (MapRecord<String, Object, Object> record : records) {
+                lastStreamId = record.getId().getValue();
+                Map<Object, Object> fields = record.getValue();
+                if (nodeId.equals(fields.get("node"))) {
+                    continue;
+                }
+                Object timestamp = fields.get("timestamp");
+                appendLocal(new RecentActivityDTO(
+                        String.valueOf(fields.get("type")),
+                        String.valueOf(fields.get("description")),
+                        timestamp == null || "null".equals(timestamp) ? null : LocalDateTime.parse(timestamp.toString())));
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Activity stream poll skipped: {}", e.getMessage());
+        }
+    }
+}
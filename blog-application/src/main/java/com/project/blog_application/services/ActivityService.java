@@ -9,10 +9,13 @@ import com.project.blog_application.repository.BlogPostRepository;
 import com.project.blog_application.repository.CommentRepository;
 import com.project.blog_application.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -23,29 +26,52 @@ public class ActivityService {
     @Autowired private BlogPostRepository blogPostRepository;
     @Autowired private CommentRepository commentRepository;
     @Autowired private UserRepository userRepository;
+    @Autowired private ActivityFeed activityFeed;
 
-    @Transactional(readOnly = true) //  Ensures DB session stays open
+    private static final int RECENT_LIMIT = 10;
+
+    public boolean isServedFromMemory() {
+        return activityFeed.isSeeded();
+    }
+
+    // Served from the in-memory feed; the DB is only read until the feed is seeded
     public List<RecentActivityDTO> getRecentActivities() {
+        if (activityFeed.isSeeded()) {
+            return activityFeed.latest(RECENT_LIMIT);
+        }
+        return loadRecentFromDatabase();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void seedFeed() {
+        List<RecentActivityDTO> oldestFirst = new ArrayList<>(loadRecentFromDatabase());
+        Collections.reverse(oldestFirst);
+        activityFeed.seed(oldestFirst);
+    }
+
+    @Transactional(readOnly = true) //  Ensures DB session stays open
+    public List<RecentActivityDTO> loadRecentFromDatabase() {
         List<RecentActivityDTO> activities = new ArrayList<>();
 
         // 1. Fetch Posts
         blogPostRepository.findTop10ByOrderByCreatedAtDesc().forEach(post ->
-                activities.add(new RecentActivityDTO("BlogPost", "New story: " + post.getTitle(), post.getCreatedAt())));
+                activities.add(ActivityFeed.postActivity(post.getTitle(), post.getCreatedAt())));
 
         // 2. Fetch Comments
         commentRepository.findTop10ByOrderByCreatedAtDesc().forEach(comment -> {
-            String username = (comment.getUser() != null) ? comment.getUser().getUsername() : "Anonymous";
-            activities.add(new RecentActivityDTO("Comment", "New feedback by " + username, comment.getCreatedAt()));
+            String username = (comment.getUser() != null) ? comment.getUser().getUsername() : null;
+            activities.add(ActivityFeed.commentActivity(username, comment.getCreatedAt()));
         });
 
         // 3. Fetch Users
         userRepository.findTop10ByOrderByCreatedAtDesc().forEach(user ->
-                activities.add(new RecentActivityDTO("User", "New member: " + user.getUsername(), user.getCreatedAt())));
+                activities.add(ActivityFeed.memberActivity(user.getUsername(), user.getCreatedAt())));
 
         //  Null-safe sorting (prevents NullPointerException if timestamp is null)
         activities.sort(Comparator.comparing(RecentActivityDTO::getTimestamp,
                 Comparator.nullsLast(Comparator.reverseOrder())));
 
-        return activities.stream().limit(10).collect(Collectors.toList());
+        return activities.stream().limit(RECENT_LIMIT).collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -1,8 +1,8 @@
 package com.project.blog_application.services;
 
 import com.project.blog_application.repository.UserRepository;
+import com.project.blog_application.services.PlatformCounters.Metric;
 
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import com.project.blog_application.repository.BlogPostRepository;
@@ -14,23 +14,32 @@ public class AdminStatsService {
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final BlogPostRepository blogPostRepository;
+    private final PlatformCounters platformCounters;
 
-    public AdminStatsService(UserRepository userRepository, CommentRepository commentRepository, BlogPostRepository blogPostRepository){
+    public AdminStatsService(UserRepository userRepository, CommentRepository commentRepository, BlogPostRepository blogPostRepository,
+            PlatformCounters platformCounters){
         this.blogPostRepository = blogPostRepository;
         this.commentRepository = commentRepository;
         this.userRepository = userRepository;
+        this.platformCounters = platformCounters;
     }
-    
+
+    // True once counts come from memory rather than COUNT queries
+    public boolean isServedFromMemory() {
+        return platformCounters.isSeeded();
+    }
+
+    // In-memory counters once seeded; COUNT queries only during startup
     public long getUserCount(){
-        return userRepository.count();
+        return platformCounters.isSeeded() ? platformCounters.get(Metric.USERS) : userRepository.count();
     }
 
     public long getCommentCount(){
-        return commentRepository.count();
+        return platformCounters.isSeeded() ? platformCounters.get(Metric.COMMENTS) : commentRepository.count();
     }
 
     public long getPostCount(){
-        return blogPostRepository.count();
+        return platformCounters.isSeeded() ? platformCounters.get(Metric.POSTS) : blogPostRepository.count();
     }
 
 }
@@ -0,0 +1,298 @@
+package com.project.blog_application.services;
+
+import com.project.blog_application.DTO.AnalyticsSeriesDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hourly rollups of posts, comments, likes and signups for the admin analytics endpoint.
+ *
+ * Open hours are counted live: write paths call {@link #record(Metric)} after commit, the increments
+ * collect in memory and are flushed as additive upserts, so several nodes can write the same bucket.
+ * Closed hours are "sealed": recomputed from the source table (DELETE + INSERT ... SELECT ... GROUP BY)
+ * once they are older than the seal delay, which corrects lost increments, deletions and hours the
+ * application was down. The first sealing pass is the history backfill and runs in chunks of hours,
+ * each committed together with the per-metric watermark so an interrupted backfill resumes.
+ *
+ * Reads only touch the rollup table plus the unflushed in-memory increments. Sealed buckets count the
+ * rows that still exist, so deleted posts and withdrawn likes drop out of an hour once it is sealed.
+ */
+@Service
+public class AnalyticsRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsRollupService.class);
+
+    public enum Metric {
+        POSTS("blog_posts"), COMMENTS("comments"), LIKES("likes"), SIGNUPS("users");
+
+        private final String sourceTable;
+
+        Metric(String sourceTable) {
+            this.sourceTable = sourceTable;
+        }
+    }
+
+    public enum Granularity {
+        HOUR, DAY, WEEK
+    }
+
+    private record BucketKey(Metric metric, LocalDateTime bucketStart) {
+    }
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO analytics_hourly_rollups (metric, bucket_start, count) VALUES (?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE count = count + VALUES(count)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int chunkHours;
+    private final Duration sealDelay;
+    private final int maxBuckets;
+
+    private final ConcurrentHashMap<BucketKey, Long> pending = new ConcurrentHashMap<>();
+    private final Map<Metric, LocalDateTime> sealedUntil = new ConcurrentHashMap<>();
+    private final ReentrantLock sealLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public AnalyticsRollupService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${analytics.rollups.enabled:true}") boolean enabled,
+            @Value("${analytics.rollups.seal-chunk-hours:168}") int chunkHours,
+            @Value("${analytics.rollups.seal-delay-ms:300000}") long sealDelayMs,
+            @Value("${analytics.max-buckets:2000}") int maxBuckets
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkHours = Math.max(1, chunkHours);
+        this.sealDelay = Duration.ofMillis(sealDelayMs);
+        this.maxBuckets = maxBuckets;
+    }
+
+    // Counts one event in the current hour once the surrounding transaction commits
+    public void record(Metric metric) {
+        if (!enabled) {
+            return;
+        }
+        AfterCommit.run(() -> pending.merge(
+                new BucketKey(metric, LocalDateTime.now().truncatedTo(ChronoUnit.HOURS)), 1L, Long::sum));
+    }
+
+    /**
+     * Counts per bucket over [from, to) widened to whole buckets, oldest first, with empty buckets
+     * included. At most analytics.max-buckets buckets per call.
+     */
+    public AnalyticsSeriesDTO series(Metric metric, Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = bucketOf(from, granularity);
+        LocalDateTime floor = bucketOf(to, granularity);
+        LocalDateTime end = floor.isBefore(to) ? next(floor, granularity) : floor;
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        long buckets = switch (granularity) {
+            case HOUR -> ChronoUnit.HOURS.between(start, end);
+            case DAY -> ChronoUnit.DAYS.between(start, end);
+            case WEEK -> ChronoUnit.WEEKS.between(start, end);
+        };
+        if (buckets > maxBuckets) {
+            throw new IllegalArgumentException("Range spans " + buckets + " buckets, the limit is " + maxBuckets);
+        }
+
+        Map<LocalDateTime, Long> counts = new TreeMap<>();
+        jdbcTemplate.query(
+                "SELECT bucket_start, count FROM analytics_hourly_rollups "
+                        + "WHERE metric = ? AND bucket_start >= ? AND bucket_start < ?",
+                rs -> {
+                    counts.merge(bucketOf(rs.getTimestamp(1).toLocalDateTime(), granularity), rs.getLong(2), Long::sum);
+                },
+                metric.name(), Timestamp.valueOf(start), Timestamp.valueOf(end));
+
+        // Increments not flushed yet
+        pending.forEach((key, count) -> {
+            if (key.metric() == metric && !key.bucketStart().isBefore(start) && key.bucketStart().isBefore(end)) {
+                counts.merge(bucketOf(key.bucketStart(), granularity), count, Long::sum);
+            }
+        });
+
+        List<AnalyticsSeriesDTO.Point> points = new ArrayList<>((int) buckets);
+        long total = 0;
+        for (LocalDateTime bucket = start; bucket.isBefore(end); bucket = next(bucket, granularity)) {
+            long count = counts.getOrDefault(bucket, 0L);
+            points.add(new AnalyticsSeriesDTO.Point(bucket, count));
+            total += count;
+        }
+        return new AnalyticsSeriesDTO(metric.name().toLowerCase(Locale.ROOT),
+                granularity.name().toLowerCase(Locale.ROOT), start, end, total, points);
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.rollups.flush-interval-ms:10000}")
+    public void flush() {
+        if (!enabled || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            Map<BucketKey, Long> drained = new HashMap<>();
+            for (BucketKey key : pending.keySet()) {
+                Long count = pending.remove(key);
+                if (count != null && count != 0) {
+                    drained.put(key, count);
+                }
+            }
+            if (drained.isEmpty()) {
+                return;
+            }
+
+            List<Object[]> rows = new ArrayList<>(drained.size());
+            drained.forEach((key, count) -> {
+                LocalDateTime sealed = sealedUntil.get(key.metric());
+                // A sealed hour was recomputed from the source table and already includes these events
+                if (sealed == null || !key.bucketStart().isBefore(sealed)) {
+                    rows.add(new Object[]{key.metric().name(), Timestamp.valueOf(key.bucketStart()), count});
+                }
+            });
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_SQL, rows));
+            } catch (RuntimeException e) {
+                logger.warn("Analytics rollup flush of {} buckets failed, re-queueing: {}", rows.size(), e.getMessage());
+                drained.forEach((key, count) -> pending.merge(key, count, Long::sum));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // The first pass backfills history and can take a while, so it runs off the scheduler thread
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread backfill = new Thread(this::sealClosedHours, "analytics-rollup-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    /**
+     * Recomputes every hour between each metric's watermark and (now - seal delay) from the source
+     * table, chunk by chunk. Only one pass runs at a time.
+     */
+    @Scheduled(fixedDelayString = "${analytics.rollups.seal-interval-ms:300000}",
+            initialDelayString = "${analytics.rollups.seal-interval-ms:300000}")
+    public void sealClosedHours() {
+        if (!enabled || !sealLock.tryLock()) {
+            return;
+        }
+        try {
+            LocalDateTime limit = LocalDateTime.now().minus(sealDelay).truncatedTo(ChronoUnit.HOURS);
+            for (Metric metric : Metric.values()) {
+                seal(metric, limit);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Analytics rollup sealing failed, will retry: {}", e.getMessage(), e);
+        } finally {
+            sealLock.unlock();
+        }
+    }
+
+    private void seal(Metric metric, LocalDateTime limit) {
+        LocalDateTime from = loadWatermark(metric);
+        long started = System.currentTimeMillis();
+        long hours = 0;
+
+        while (from.isBefore(limit)) {
+            LocalDateTime chunkStart = from;
+            LocalDateTime chunkEnd = chunkStart.plusHours(chunkHours).isBefore(limit) ? chunkStart.plusHours(chunkHours) : limit;
+            Timestamp startTs = Timestamp.valueOf(chunkStart);
+            Timestamp endTs = Timestamp.valueOf(chunkEnd);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(
+                        "DELETE FROM analytics_hourly_rollups WHERE metric = ? AND bucket_start >= ? AND bucket_start < ?",
+                        metric.name(), startTs, endTs);
+                jdbcTemplate.update(
+                        "INSERT INTO analytics_hourly_rollups (metric, bucket_start, count) "
+                                + "SELECT ?, TIMESTAMP(DATE_FORMAT(created_at, '%Y-%m-%d %H:00:00')), COUNT(*) FROM "
+                                + metric.sourceTable + " WHERE created_at >= ? AND created_at < ? GROUP BY 2 "
+                                + "ON DUPLICATE KEY UPDATE count = VALUES(count)",
+                        metric.name(), startTs, endTs);
+                jdbcTemplate.update("UPDATE analytics_rollup_state SET sealed_until = ? WHERE metric = ?",
+                        endTs, metric.name());
+            });
+
+            sealedUntil.put(metric, chunkEnd);
+            hours += ChronoUnit.HOURS.between(chunkStart, chunkEnd);
+            from = chunkEnd;
+        }
+
+        if (hours > chunkHours) {
+            logger.info("Backfilled {} hours of {} rollups in {} ms", hours, metric, System.currentTimeMillis() - started);
+        }
+    }
+
+    // Starts a metric at its oldest source row (or the current hour when there is none)
+    private LocalDateTime loadWatermark(Metric metric) {
+        List<Timestamp> stored = jdbcTemplate.queryForList(
+                "SELECT sealed_until FROM analytics_rollup_state WHERE metric = ?", Timestamp.class, metric.name());
+        if (!stored.isEmpty()) {
+            LocalDateTime watermark = stored.get(0).toLocalDateTime();
+            sealedUntil.put(metric, watermark);
+            return watermark;
+        }
+
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(created_at) FROM " + metric.sourceTable, Timestamp.class);
+        LocalDateTime watermark = (oldest != null ? oldest.toLocalDateTime() : LocalDateTime.now())
+                .truncatedTo(ChronoUnit.HOURS);
+        jdbcTemplate.update("INSERT IGNORE INTO analytics_rollup_state (metric, sealed_until) VALUES (?, ?)",
+                metric.name(), Timestamp.valueOf(watermark));
+        return loadWatermark(metric);
+    }
+
+    private static LocalDateTime bucketOf(LocalDateTime time, Granularity granularity) {
+        return switch (granularity) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case WEEK -> time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        };
+    }
+
+    private static LocalDateTime next(LocalDateTime bucket, Granularity granularity) {
+        return switch (granularity) {
+            case HOUR -> bucket.plusHours(1);
+            case DAY -> bucket.plusDays(1);
+            case WEEK -> bucket.plusWeeks(1);
+        };
+    }
+}
@@ -8,9 +8,12 @@ import com.project.blog_application.exceptions.InvalidCredentialsException;
 import com.project.blog_application.exceptions.UserAlreadyExistsException;
 import com.project.blog_application.repository.UserRepository;
 import com.project.blog_application.security.JwtUtil;
+import com.project.blog_application.security.TokenRevocationStore;
+import com.project.blog_application.security.UserRevocationStore;
+import com.project.blog_application.security.VerifiedToken;
+import io.jsonwebtoken.JwtException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.util.HashMap;
 import java.util.Map;
@@ -22,14 +25,27 @@ public class AuthService {
     private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final UserRevocationStore userRevocationStore;
+    private final PlatformCounters platformCounters;
+    private final ActivityFeed activityFeed;
+    private final AnalyticsRollupService analyticsRollups;
 
     // Constructor injection for dependencies
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public AuthService(UserRepository userRepository, PasswordHashingService passwordHashingService, JwtUtil jwtUtil,
+            TokenRevocationStore tokenRevocationStore, UserRevocationStore userRevocationStore,
+            PlatformCounters platformCounters, ActivityFeed activityFeed,
+            AnalyticsRollupService analyticsRollups) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtUtil = jwtUtil;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.userRevocationStore = userRevocationStore;
+        this.platformCounters = platformCounters;
+        this.activityFeed = activityFeed;
+        this.analyticsRollups = analyticsRollups;
     }
 
     // Registers a new user with validation and default role
@@ -45,9 +61,12 @@ public class AuthService {
             throw new UserAlreadyExistsException("Email already registered");
         }
 
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHashingService.encode(user.getPassword()));
         user.setRole(Role.USER);
-        userRepository.save(user);
+        User saved = userRepository.save(user);
+        platformCounters.adjust(PlatformCounters.Metric.USERS, 1);
+        activityFeed.record(ActivityFeed.memberActivity(saved.getUsername(), saved.getCreatedAt()));
+        analyticsRollups.record(AnalyticsRollupService.Metric.SIGNUPS);
 
         logger.info("User registered successfully: {}", user.getEmail());
 
@@ -77,14 +96,94 @@ public class AuthService {
         }
 
         User user = userOptional.get();
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordHashingService.matches(password, user.getPassword())) {
             logger.error("Login failed: Invalid password for email: {}", email);
             throw new InvalidCredentialsException("Invalid email or password");
         }
+        upgradeHashIfNeeded(user, password);
 
-        // Generate token with email and role
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole());
         logger.info("Login successful for email: {}, role: {}", user.getEmail(), user.getRole().name());
-        return new LoginResponse(token, "Login successful");
+        return issueTokens(user, "Login successful");
     }
-}
\ No newline at end of file
+
+    /**
+     * Exchanges a refresh token for a new access/refresh pair. The presented refresh token is
+     * revoked (rotation); presenting an already-revoked one is treated as theft and revokes
+     * every token of that user.
+     */
+    public LoginResponse refresh(String refreshToken) {
+        VerifiedToken verified;
+        try {
+            verified = jwtUtil.verify(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidCredentialsException("Invalid refresh token");
+        }
+        if (!verified.isRefreshToken() || verified.userId() == null) {
+            throw new InvalidCredentialsException("Invalid refresh token");
+        }
+        if (tokenRevocationStore.isRevoked(verified.tokenId())) {
+            logger.warn("Reuse of revoked refresh token for user {}, revoking all of their tokens", verified.userId());
+            userRevocationStore.revokeAll(verified.userId());
+            throw new InvalidCredentialsException("Invalid refresh token");
+        }
+        if (userRevocationStore.isRevoked(verified.userId(), verified.issuedAt())) {
+            throw new InvalidCredentialsException("Invalid refresh token");
+        }
+
+        // Refreshes are rare, so re-read the user: deleted accounts and role changes apply here
+        User user = userRepository.findById(verified.userId())
+                .orElseThrow(() -> new InvalidCredentialsException("Invalid refresh token"));
+
+        // The revoke is the reuse check: of two concurrent refreshes with one token only one wins
+        if (!tokenRevocationStore.revoke(verified.tokenId(), verified.expiresAt())) {
+            logger.warn("Concurrent refresh with the same token for user {}, rejecting", verified.userId());
+            throw new InvalidCredentialsException("Invalid refresh token");
+        }
+        return issueTokens(user, "Token refreshed");
+    }
+
+    // Revokes the caller's access token and, if given, their refresh token
+    public void logout(String accessToken, String refreshToken) {
+        revokeQuietly(accessToken);
+        revokeQuietly(refreshToken);
+    }
+
+    // Admin kill switch: every token of the user issued until now stops working
+    public void revokeAllTokens(Long userId) {
+        userRevocationStore.revokeAll(userId);
+        logger.info("All tokens revoked for user {}", userId);
+    }
+
+    // Revokes one token, e.g. a leaked one reported to an admin
+    public boolean revokeToken(String token) {
+        return revokeQuietly(token);
+    }
+
+    private boolean revokeQuietly(String token) {
+        if (token == null || token.isBlank()) {
+            return false;
+        }
+        try {
+            VerifiedToken verified = jwtUtil.verify(token);
+            tokenRevocationStore.revoke(verified.tokenId(), verified.expiresAt());
+            return verified.tokenId() != null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return false; // Expired or invalid tokens need no revocation
+        }
+    }
+
+    private LoginResponse issueTokens(User user, String message) {
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole());
+        String refreshToken = jwtUtil.generateRefreshToken(user.getId(), user.getEmail(), user.getRole());
+        return new LoginResponse(token, refreshToken, message);
+    }
+
+    // Rehashes at the current BCrypt cost once the password is known to be correct
+    private void upgradeHashIfNeeded(User user, String rawPassword) {
+        String current = user.getPassword();
+        if (passwordHashingService.needsUpgrade(current)) {
+            passwordHashingService.upgradeInBackground(rawPassword,
+                    upgraded -> userRepository.replacePasswordHash(user.getId(), current, upgraded));
+        }
+    }
+}
@@ -18,12 +18,16 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.project.blog_application.services.FileStorageService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import com.project.blog_application.services.PlatformCounters.Metric;
+
 @Service
 public class BlogPostService {
     private static final Logger logger = LoggerFactory.getLogger(BlogPostService.class);
@@ -32,6 +36,11 @@ public class BlogPostService {
     private final FileStorageService fileStorageService;
     private final BlogMetrics blogMetrics;
     private final ObjectMapper objectMapper;
+    private final LikeGraphIndex likeGraphIndex;
+    private final PlatformCounters platformCounters;
+    private final ActivityFeed activityFeed;
+    private final AnalyticsRollupService analyticsRollups;
+    private final FileDeletionQueue fileDeletionQueue;
 
 
     @Autowired
@@ -39,16 +48,27 @@ public class BlogPostService {
             BlogPostRepository blogPostRepository,
             FileStorageService fileStorageService,
             BlogMetrics blogMetrics,
-            ObjectMapper objectMapper
+            ObjectMapper objectMapper,
+            LikeGraphIndex likeGraphIndex,
+            PlatformCounters platformCounters,
+            ActivityFeed activityFeed,
+            AnalyticsRollupService analyticsRollups,
+            FileDeletionQueue fileDeletionQueue
     ) {
         this.blogPostRepository = blogPostRepository;
         this.fileStorageService = fileStorageService;
         this.blogMetrics = blogMetrics;
         this.objectMapper = objectMapper;
+        this.likeGraphIndex = likeGraphIndex;
+        this.platformCounters = platformCounters;
+        this.activityFeed = activityFeed;
+        this.fileDeletionQueue = fileDeletionQueue;
+        this.analyticsRollups = analyticsRollups;
     }
 
     // Cache JSON string for paginated posts
     @Cacheable(value = "blogPostsPageJson", key = "#pageable.pageNumber + '-' + #pageable.pageSize")
+    @Transactional(readOnly = true)
     public String getAllBlogPostsJson(Pageable pageable) throws JsonProcessingException {
         logger.info("CACHE MISS - Fetching paginated posts from DB (page: {}, size: {})",
                 pageable.getPageNumber(), pageable.getPageSize());
@@ -76,6 +96,7 @@ public class BlogPostService {
 
     // Cache JSON string for individual post
     @Cacheable(value = "blogPost", key = "#id")
+    @Transactional(readOnly = true)
     public String getBlogPostByIdJson(Long id) throws JsonProcessingException {
         logger.info("CACHE MISS - Fetching blog post {} from DB", id);
         blogMetrics.incrementCacheMiss();
@@ -102,6 +123,7 @@ public class BlogPostService {
     }
 
     // Cache search by title - returns DTOs
+    @Transactional(readOnly = true)
     public List<BlogPostDTO> searchByTitleDTO(String title) {
         logger.info("Cache MISS - Searching posts by title '{}' from DB", title);
 
@@ -113,6 +135,7 @@ public class BlogPostService {
     }
 
     // Cache posts by user ID - returns DTOs
+    @Transactional(readOnly = true)
     public List<BlogPostDTO> searchByUserIdDTO(Long userId) {
         logger.info("Cache MISS - Fetching posts for user {} from DB", userId);
 
@@ -124,6 +147,7 @@ public class BlogPostService {
     }
 
     // Cache search by keyword - returns DTOs
+    @Transactional(readOnly = true)
     public List<BlogPostDTO> searchByTitleOrContentDTO(String keyword) {
         logger.info("🔍 Cache MISS - Searching posts by keyword '{}' from DB", keyword);
 
@@ -150,20 +174,21 @@ public class BlogPostService {
     // Clear all caches when creating post
     @CacheEvict(value = {
             "blogPost",
-            "blogPostsPageJson",
-            "userCount",
-            "postCount",
-            "commentCount",
-            "dashboardStats"
+            "blogPostsPageJson"
     }, allEntries = true)
     public BlogPost createPost(BlogPost blogPost, User user) {
         logger.info("Creating new blog post and EVICTING all caches");
         blogPost.setUser(user);
-        return blogPostRepository.save(blogPost);
+        BlogPost saved = blogPostRepository.save(blogPost);
+        platformCounters.adjust(Metric.POSTS, 1);
+        activityFeed.record(ActivityFeed.postActivity(saved.getTitle(), saved.getCreatedAt()));
+        analyticsRollups.record(AnalyticsRollupService.Metric.POSTS);
+        return saved;
     }
 
     // Clear individual post cache + all list caches when updating
     @CacheEvict(value = {"blogPost", "blogPostsPageJson"}, allEntries = true)
+    @Transactional
     public BlogPost updatePost(Long id, BlogPost patch) {
 
         logger.info(" Updating blog post {} and EVICTING all caches", id);
@@ -184,9 +209,9 @@ public class BlogPostService {
         // 4 Update image if present
         if (patch.getImageUrl() != null && !patch.getImageUrl().isEmpty()) {
 
-            // Delete old image safely
+            // Old image is released by the deletion queue once this update commits
             if (existing.getImageUrl() != null && !existing.getImageUrl().isEmpty()) {
-                fileStorageService.delete(existing.getImageUrl());
+                fileDeletionQueue.enqueue(existing.getImageUrl());
             }
 
             // Store ONLY filename
@@ -197,6 +222,7 @@ public class BlogPostService {
         return blogPostRepository.save(existing);
     }
 
+    @Transactional(readOnly = true)
     public List<BlogPostDTO> getPostsByUserId(Long userId) {
         // 1. Fetch posts from Repo (assuming you have a findByUserId in Repository)
         List<BlogPost> posts = blogPostRepository.findByUserIdOrderByCreatedAtDesc(userId);
@@ -211,22 +237,20 @@ public class BlogPostService {
     // Clear ALL caches when deleting
     @CacheEvict(value = {
             "blogPost",
-            "blogPostsPageJson",
-            "postCount",
-            "dashboardStats"
+            "blogPostsPageJson"
     }, allEntries = true)
+    @Transactional
     public void deletePost(Long id) {
         logger.info("Deleting blog post {} and EVICTING all caches", id);
 
         BlogPost existingPost = getBlogPostById(id);
 
-        // Delete associated image
-        if (existingPost.getImageUrl() != null && !existingPost.getImageUrl().isEmpty()) {
-            fileStorageService.delete(existingPost.getImageUrl());
+        // Soft delete: one flag flip; likes, comments and the image are removed later by PostPurgeService
+        if (blogPostRepository.softDelete(id, LocalDateTime.now()) == 0) {
+            throw new ResourceNotFoundException("Blog post not found with id: " + id);
         }
-
-        existingPost.getLikes().clear();
-        existingPost.getComments().clear();
-        blogPostRepository.delete(existingPost);
+        AfterCommit.run(() -> likeGraphIndex.removePost(id));
+        platformCounters.adjust(Metric.POSTS, -1);
+        platformCounters.adjust(Metric.COMMENTS, -existingPost.getCommentCount());
     }
 }
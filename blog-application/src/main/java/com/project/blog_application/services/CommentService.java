@@ -1,6 +1,11 @@
 package com.project.blog_application.services;
 
 import com.project.blog_application.DTO.CommentDTO;
+import com.project.blog_application.DTO.CommentNodeDTO;
+import com.project.blog_application.DTO.CommentNodeView;
+import com.project.blog_application.DTO.CommentThreadDTO;
+import com.project.blog_application.DTO.CursorPage;
+import com.project.blog_application.DTO.PageResponse;
 import com.project.blog_application.entities.BlogPost;
 import com.project.blog_application.entities.User;
 import com.project.blog_application.entities.Comment;
@@ -8,77 +13,272 @@ import com.project.blog_application.repository.CommentRepository;
 import com.project.blog_application.repository.UserRepository;
 import com.project.blog_application.repository.BlogPostRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class CommentService {
+    // Upper bound for any comment page, so no request can pull a whole table
+    public static final int MAX_PAGE_SIZE = 100;
+    // Reply nesting limit; keeps paths (13 chars per level) well inside the column
+    public static final int MAX_DEPTH = 50;
+    // Upper bound for a single thread load
+    public static final int MAX_THREAD_NODES = 1000;
+    public static final int MAX_REPLIES_PER_THREAD = 50;
+
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final BlogPostRepository blogPostRepository;
+    private final PlatformCounters platformCounters;
+    private final ActivityFeed activityFeed;
+    private final AnalyticsRollupService analyticsRollups;
 
     @Autowired
     public CommentService(CommentRepository commentRepository, UserRepository userRepository,
-            BlogPostRepository blogPostRepository) {
+            BlogPostRepository blogPostRepository, PlatformCounters platformCounters, ActivityFeed activityFeed,
+            AnalyticsRollupService analyticsRollups) {
         this.commentRepository = commentRepository;
         this.userRepository = userRepository;
         this.blogPostRepository = blogPostRepository;
+        this.platformCounters = platformCounters;
+        this.activityFeed = activityFeed;
+        this.analyticsRollups = analyticsRollups;
     }
 
     // Create a comment
+    @Transactional
     public CommentDTO createComment(Long userId, Long blogPostId, String content) {
+        return createComment(userId, blogPostId, content, null);
+    }
+
+    // Create a comment, or a reply when parentId is given
+    @Transactional
+    public CommentDTO createComment(Long userId, Long blogPostId, String content, Long parentId) {
         Optional<User> user = userRepository.findById(userId);
         Optional<BlogPost> blogPost = blogPostRepository.findById(blogPostId);
 
         if (user.isPresent() && blogPost.isPresent()) {
+            Comment parent = null;
+            if (parentId != null) {
+                parent = commentRepository.findById(parentId)
+                        .orElseThrow(() -> new RuntimeException("Parent comment not found for id=" + parentId));
+                if (!parent.getBlogPost().getId().equals(blogPostId)) {
+                    throw new RuntimeException("Parent comment " + parentId + " belongs to another post");
+                }
+                if (parent.getPath() == null || parent.getDepth() + 1 > MAX_DEPTH) {
+                    throw new RuntimeException("Cannot reply to comment " + parentId);
+                }
+            }
+
             Comment comment = new Comment();
             comment.setContent(content);
             comment.setUser(user.get());
             comment.setBlogPost(blogPost.get());
             comment.setCreatedAt(LocalDateTime.now());
-            return new CommentDTO(commentRepository.save(comment));
+            comment.setParent(parent);
+            comment = commentRepository.save(comment);
+
+            // The path ends with the comment's own id, which MySQL only assigns on insert (IDENTITY, no
+            // sequences to pre-allocate from). So the path is set on the managed entity afterwards and
+            // dirty checking writes it as an UPDATE of the same row at commit, in the same transaction.
+            String segment = String.format("%012d/", comment.getId());
+            if (parent == null) {
+                comment.setRootId(comment.getId());
+                comment.setDepth(0);
+                comment.setPath(segment);
+            } else {
+                comment.setRootId(parent.getRootId());
+                comment.setDepth(parent.getDepth() + 1);
+                comment.setPath(parent.getPath() + segment);
+            }
+
+            CommentDTO saved = new CommentDTO(comment);
+            blogPostRepository.adjustCommentCount(blogPostId, 1);
+            platformCounters.adjust(PlatformCounters.Metric.COMMENTS, 1);
+            activityFeed.record(ActivityFeed.commentActivity(user.get().getUsername(), comment.getCreatedAt()));
+            analyticsRollups.record(AnalyticsRollupService.Metric.COMMENTS);
+            return saved;
         }
         throw new RuntimeException("User or BlogPost not found for userId=" + userId + ", blogPostId=" + blogPostId);
     }
 
-    // Get all comments
-    public List<CommentDTO> getAllComments() {
-        return commentRepository.findAll()
-                .stream()
-                .map(CommentDTO::new)
-                .collect(Collectors.toList());
+    // Admin listing, newest first, capped page size
+    @Transactional(readOnly = true)
+    public PageResponse<CommentDTO> getAllComments(int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Page<CommentDTO> comments = commentRepository.findAllDTOs(PageRequest.of(Math.max(page, 0), pageSize));
+        return new PageResponse<>(
+                comments.getContent(),
+                comments.getNumber(),
+                comments.getSize(),
+                comments.getTotalElements(),
+                comments.getTotalPages(),
+                comments.isLast(),
+                comments.isFirst()
+        );
+    }
+
+    // All comments of a post, oldest first, as one joined query
+    @Transactional(readOnly = true)
+    public List<CommentDTO> getCommentsByBlogPost(Long blogPostId) {
+        return commentRepository.findDTOsByBlogPostId(blogPostId);
     }
 
-    public List<Comment> getCommentsByBlogPost(Long blogPostId) {
-        return commentRepository.findByBlogPostId(blogPostId);
+    /**
+     * Keyset page of a post's comments.
+     *
+     * @param cursor      id of the last comment of the previous page, or null for the first page
+     * @param newestFirst true for newest-first, false for oldest-first
+     * @return the page, plus the post's comment total from the denormalized counter
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CommentDTO> getCommentPage(Long blogPostId, Long cursor, int limit, boolean newestFirst) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        // Fetch one extra row to learn whether another page exists without a count query
+        PageRequest probe = PageRequest.of(0, pageSize + 1);
+
+        List<CommentDTO> rows = newestFirst
+                ? commentRepository.findPageNewestFirst(blogPostId, cursor != null ? cursor : Long.MAX_VALUE, probe)
+                : commentRepository.findPageOldestFirst(blogPostId, cursor != null ? cursor : 0L, probe);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<CommentDTO> content = hasMore ? rows.subList(0, pageSize) : rows;
+        Long nextCursor = hasMore ? content.get(content.size() - 1).getId() : null;
+        long total = blogPostRepository.findCommentCountById(blogPostId).orElse(0L);
+
+        return new CursorPage<>(content, nextCursor, hasMore, total);
+    }
+
+    /**
+     * A comment and its replies, loaded with one path-prefix range query, up to MAX_THREAD_NODES.
+     *
+     * @return the comment as the root of a reply tree, flagged truncated when replies were left out,
+     *         or empty if it does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<CommentThreadDTO> getThread(Long commentId) {
+        Optional<Comment> comment = commentRepository.findById(commentId);
+        if (comment.isEmpty() || comment.get().getPath() == null) {
+            return Optional.empty();
+        }
+        // One extra row tells whether the thread goes on past the limit
+        List<CommentNodeView> rows = commentRepository.findSubtree(
+                comment.get().getRootId(), comment.get().getPath(), MAX_THREAD_NODES + 1);
+        boolean truncated = rows.size() > MAX_THREAD_NODES;
+        List<CommentNodeDTO> roots = assembleTree(new ArrayList<>(), truncated ? rows.subList(0, MAX_THREAD_NODES) : rows);
+        return roots.isEmpty() ? Optional.empty() : Optional.of(new CommentThreadDTO(roots.get(0), truncated));
     }
 
-    // Get a comment by ID
+    /**
+     * Keyset page of a post's top-level comments, newest first, each with its first replies in
+     * depth-first order. Two queries per page: the top-level rows and one windowed reply query.
+     *
+     * @param cursor  id of the last top-level comment of the previous page, or null for the first page
+     * @param replies replies to include per thread (0 for none)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CommentNodeDTO> getThreadPage(Long blogPostId, Long cursor, int limit, int replies) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        int perThread = Math.min(Math.max(replies, 0), MAX_REPLIES_PER_THREAD);
+
+        List<CommentNodeView> rows = commentRepository.findTopLevelPage(
+                blogPostId, cursor != null ? cursor : Long.MAX_VALUE, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<CommentNodeView> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        List<CommentNodeDTO> roots = new ArrayList<>(page.size());
+        Map<Long, CommentNodeDTO> byId = new HashMap<>();
+        for (CommentNodeView row : page) {
+            CommentNodeDTO node = new CommentNodeDTO(row);
+            roots.add(node);
+            byId.put(node.getId(), node);
+        }
+        if (perThread > 0 && !byId.isEmpty()) {
+            attach(byId, new ArrayList<>(), commentRepository.findFirstReplies(byId.keySet(), perThread));
+        }
+
+        Long nextCursor = hasMore ? roots.get(roots.size() - 1).getId() : null;
+        long total = blogPostRepository.findCommentCountById(blogPostId).orElse(0L);
+        return new CursorPage<>(roots, nextCursor, hasMore, total);
+    }
+
+    // Builds trees from rows in path order in one pass: a parent's row always precedes its replies
+    static List<CommentNodeDTO> assembleTree(List<CommentNodeDTO> roots, List<CommentNodeView> rows) {
+        return attach(new HashMap<>(), roots, rows);
+    }
+
+    private static List<CommentNodeDTO> attach(Map<Long, CommentNodeDTO> byId, List<CommentNodeDTO> roots,
+            List<CommentNodeView> rows) {
+        for (CommentNodeView row : rows) {
+            CommentNodeDTO node = new CommentNodeDTO(row);
+            CommentNodeDTO parent = node.getParentId() != null ? byId.get(node.getParentId()) : null;
+            if (parent != null) {
+                parent.getReplies().add(node);
+            } else if (byId.isEmpty()) {
+                // First row of a subtree load is its root
+                roots.add(node);
+            } else {
+                // Parent fell outside the loaded window
+                continue;
+            }
+            byId.put(node.getId(), node);
+        }
+        return roots;
+    }
+
+    // Get a comment by ID; comments of soft-deleted posts are hidden like the posts themselves
+    @Transactional(readOnly = true)
     public Optional<CommentDTO> getCommentById(Long id) {
-        return commentRepository.findById(id)
-                .map(CommentDTO::new);
+        return findLive(id).map(CommentDTO::new);
     }
 
     // Update a comment
+    @Transactional
     public CommentDTO updateComment(Long id, String content) {
-        Optional<Comment> existingComment = commentRepository.findById(id);
-        if (existingComment.isPresent()) {
-            Comment comment = existingComment.get();
-            if (content != null && !content.isEmpty()) {
-                comment.setContent(content);
-            }
-            comment.setCreatedAt(LocalDateTime.now()); // Update timestamp (since updatedAt is removed)
-            return new CommentDTO(commentRepository.save(comment));
+        Comment comment = findOnLivePost(id);
+        if (content != null && !content.isEmpty()) {
+            comment.setContent(content);
         }
-        throw new RuntimeException("Comment not found for id=" + id);
+        comment.setCreatedAt(LocalDateTime.now()); // Update timestamp (since updatedAt is removed)
+        return new CommentDTO(commentRepository.save(comment));
     }
 
-    // Delete a comment
+    // Delete a comment together with its replies
+    @Transactional
     public void deleteComment(Long id) {
-        commentRepository.deleteById(id);
+        Comment comment = findOnLivePost(id);
+        Long blogPostId = comment.getBlogPost().getId();
+
+        int removed;
+        if (comment.getPath() != null) {
+            removed = commentRepository.deleteSubtree(comment.getRootId(), comment.getPath());
+        } else {
+            commentRepository.delete(comment);
+            removed = 1;
+        }
+        blogPostRepository.adjustCommentCount(blogPostId, -removed);
+        platformCounters.adjust(PlatformCounters.Metric.COMMENTS, -removed);
+    }
+
+    // Comments of a soft-deleted post are gone as far as callers are concerned (and already left the
+    // counters). existsById is a JPQL query, so the post's @SQLRestriction applies even though the
+    // comment's lazy post proxy is already in the persistence context.
+    private Comment findOnLivePost(Long id) {
+        return findLive(id).orElseThrow(() -> new RuntimeException("Comment not found for id=" + id));
+    }
+
+    // The comment, unless its post is soft-deleted (the post itself is filtered out by @SQLRestriction)
+    private Optional<Comment> findLive(Long id) {
+        return commentRepository.findById(id)
+                .filter(comment -> blogPostRepository.existsById(comment.getBlogPost().getId()));
     }
-}
\ No newline at end of file
+}
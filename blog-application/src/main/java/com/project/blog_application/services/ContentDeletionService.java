@@ -0,0 +1,147 @@
+package com.project.blog_application.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based deletion of posts and users together with the rows that hang off them.
+ *
+ * Instead of loading every like and comment into the persistence context and letting JPA cascade
+ * delete them one by one, children are removed with plain DELETE statements in dependency order
+ * (likes, comments, then the post or user). Large sets are removed in chunks of chunk-size rows per
+ * statement, which keeps each statement's locks and undo small.
+ *
+ * Runs in the caller's transaction, and bypasses JPA: callers must not hold modified copies of the
+ * deleted entities.
+ */
+@Service
+public class ContentDeletionService {
+
+    public record PostRemoval(long comments, long likes) {
+    }
+
+    public record UserRemoval(List<Long> postIds, List<String> files, long comments) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+
+    public ContentDeletionService(JdbcTemplate jdbcTemplate,
+                                  @Value("${deletion.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    // Deletes the posts with their likes and comments; returns how many of each went with them
+    public PostRemoval deletePosts(List<Long> postIds) {
+        long comments = 0;
+        long likes = 0;
+        for (List<Long> ids : chunks(postIds)) {
+            String in = placeholders(ids.size());
+            likes += deleteInChunks("DELETE FROM likes WHERE blog_post_id IN (" + in + ")", ids);
+            comments += deleteInChunks("DELETE FROM comments WHERE blog_post_id IN (" + in + ")", ids);
+            jdbcTemplate.update("DELETE FROM blog_posts WHERE id IN (" + in + ")", ids.toArray());
+        }
+        return new PostRemoval(comments, likes);
+    }
+
+    /**
+     * Deletes the user, their posts (with likes and comments), their likes, and their comments on
+     * other posts together with the replies under them. Those posts' comment counters are lowered by
+     * what they lost. Returns the ids of the removed live posts (soft-deleted ones are purged too),
+     * the upload files no longer referenced, and the comments that were still visible.
+     */
+    public UserRemoval deleteUser(long userId) {
+        List<Long> postIds = new ArrayList<>();
+        List<Long> softDeletedIds = new ArrayList<>();
+        List<String> files = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, image_url, is_deleted FROM blog_posts WHERE user_id = ?", rs -> {
+            (rs.getBoolean("is_deleted") ? softDeletedIds : postIds).add(rs.getLong("id"));
+            String imageUrl = rs.getString("image_url");
+            if (imageUrl != null && !imageUrl.isEmpty()) {
+                files.add(imageUrl);
+            }
+        }, userId);
+        files.addAll(jdbcTemplate.queryForList(
+                "SELECT profile_picture FROM users WHERE id = ? AND profile_picture IS NOT NULL", String.class, userId));
+
+        long comments = deletePosts(postIds).comments();
+        // Posts already soft-deleted left the counters when they were deleted; they only need purging
+        deletePosts(softDeletedIds);
+
+        // The user's remaining comments are on other posts; replies to them go too, as with deleteSubtree
+        Set<Long> commentIds = new LinkedHashSet<>();
+        Map<Long, Long> removedPerPost = new HashMap<>();
+        long[] visible = {0};
+        jdbcTemplate.query(
+                "SELECT t.id, t.blog_post_id, p.is_deleted FROM ("
+                        + "SELECT c.id, c.blog_post_id FROM comments c WHERE c.user_id = ? "
+                        + "UNION "
+                        + "SELECT c.id, c.blog_post_id FROM comments c JOIN comments m "
+                        + "ON m.root_id = c.root_id AND c.path LIKE CONCAT(m.path, '%') "
+                        + "WHERE m.user_id = ? AND m.path IS NOT NULL"
+                        + ") t JOIN blog_posts p ON p.id = t.blog_post_id",
+                rs -> {
+                    if (commentIds.add(rs.getLong("id"))) {
+                        removedPerPost.merge(rs.getLong("blog_post_id"), 1L, Long::sum);
+                        if (!rs.getBoolean("is_deleted")) {
+                            visible[0]++;
+                        }
+                    }
+                },
+                userId, userId);
+        for (List<Long> ids : chunks(new ArrayList<>(commentIds))) {
+            jdbcTemplate.update("DELETE FROM comments WHERE id IN (" + placeholders(ids.size()) + ")", ids.toArray());
+        }
+        comments += visible[0];
+        List<Object[]> counterUpdates = new ArrayList<>(removedPerPost.size());
+        removedPerPost.forEach((postId, removed) -> counterUpdates.add(new Object[]{removed, postId}));
+        jdbcTemplate.batchUpdate(
+                "UPDATE blog_posts SET comment_count = GREATEST(comment_count - ?, 0) WHERE id = ?", counterUpdates);
+
+        deleteInChunks("DELETE FROM likes WHERE user_id = ?", List.of(userId));
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        return new UserRemoval(postIds, files, comments);
+    }
+
+    // Repeats a DELETE ... LIMIT chunk-size until a statement removes less than a full chunk
+    private long deleteInChunks(String sql, List<Long> args) {
+        Object[] params = new Object[args.size() + 1];
+        for (int i = 0; i < args.size(); i++) {
+            params[i] = args.get(i);
+        }
+        params[args.size()] = chunkSize;
+
+        long total = 0;
+        int removed;
+        do {
+            removed = jdbcTemplate.update(sql + " LIMIT ?", params);
+            total += removed;
+        } while (removed == chunkSize);
+        return total;
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<List<Long>> chunks = new ArrayList<>((ids.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + chunkSize)));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
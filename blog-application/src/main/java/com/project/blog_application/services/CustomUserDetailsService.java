@@ -2,6 +2,7 @@ package com.project.blog_application.services;
 
 import com.project.blog_application.entities.User;
 import com.project.blog_application.repository.UserRepository;
+import com.project.blog_application.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -22,10 +23,7 @@ public class CustomUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email.toLowerCase()) // Case-insensitive email search
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail()) // Use email as username for consistency
-                .password(user.getPassword())
-                .authorities("ROLE_" + user.getRole().name()) //// Add "ROLE_" prefix
-                .build();
+        // Same principal type as claims-based authentication; username is the email
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole(), user.getPassword());
     }
 }
\ No newline at end of file
@@ -2,36 +2,153 @@ package com.project.blog_application.services;
 
 import com.project.blog_application.DTO.DashboardStatsDTO;
 import com.project.blog_application.DTO.RecentActivityDTO;
-import org.springframework.cache.annotation.Cacheable;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 
 @Service
 public class DashboardService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
     private final AdminStatsService adminStatsService;
     private final ActivityService activityService;
+    private final MeterRegistry meterRegistry;
+    private final boolean fanOut;
+    private final long sourceTimeoutMs;
+    private final ThreadPoolExecutor executor;
+
+    // Last good value per source, served when that source times out or fails; null until it first answers
+    private final AtomicReference<Long> lastUserCount = new AtomicReference<>();
+    private final AtomicReference<Long> lastPostCount = new AtomicReference<>();
+    private final AtomicReference<Long> lastCommentCount = new AtomicReference<>();
+    private final AtomicReference<List<RecentActivityDTO>> lastActivities = new AtomicReference<>();
 
-    public DashboardService(AdminStatsService adminStatsService, ActivityService activityService) {
+    public DashboardService(
+            AdminStatsService adminStatsService,
+            ActivityService activityService,
+            MeterRegistry meterRegistry,
+            @Value("${dashboard.fan-out.enabled:true}") boolean fanOut,
+            @Value("${dashboard.fan-out.threads:8}") int threads,
+            @Value("${dashboard.fan-out.queue-capacity:32}") int queueCapacity,
+            @Value("${dashboard.fan-out.timeout-ms:500}") long sourceTimeoutMs
+    ) {
         this.adminStatsService = adminStatsService;
         this.activityService = activityService;
+        this.meterRegistry = meterRegistry;
+        this.fanOut = fanOut;
+        this.sourceTimeoutMs = sourceTimeoutMs;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-query-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
     }
 
     /**
      * Get consolidated dashboard statistics in a single API call.
      * Includes user count, post count, comment count, and recent activities.
-     * Results are cached to reduce database load.
-     * 
+     * Counts come from the in-memory platform counters.
+     *
+     * While any source still reads the database (before the counters and the activity feed are
+     * seeded), the four sources are queried in parallel on a bounded pool, each with its own
+     * timeout. A source that is slow or fails contributes its last good value and the result is
+     * flagged as partial. A source with no last good value yet (a cold node) is queried again on the
+     * calling thread and waited for, since a stale value is acceptable but an invented zero is not.
+     *
      * @return DashboardStatsDTO containing all dashboard data
      */
     public DashboardStatsDTO getDashboardStats() {
-        long userCount = adminStatsService.getUserCount();
-        long postCount = adminStatsService.getPostCount();
-        long commentCount = adminStatsService.getCommentCount();
-        List<RecentActivityDTO> recentActivities = activityService.getRecentActivities();
+        if (!fanOut || (adminStatsService.isServedFromMemory() && activityService.isServedFromMemory())) {
+            long userCount = adminStatsService.getUserCount();
+            long postCount = adminStatsService.getPostCount();
+            long commentCount = adminStatsService.getCommentCount();
+            List<RecentActivityDTO> recentActivities = activityService.getRecentActivities();
+
+            return new DashboardStatsDTO(userCount, postCount, commentCount, recentActivities);
+        }
+
+        AtomicBoolean partial = new AtomicBoolean();
+        CompletableFuture<Long> users = submit("users", adminStatsService::getUserCount, lastUserCount, partial);
+        CompletableFuture<Long> posts = submit("posts", adminStatsService::getPostCount, lastPostCount, partial);
+        CompletableFuture<Long> comments = submit("comments", adminStatsService::getCommentCount, lastCommentCount, partial);
+        CompletableFuture<List<RecentActivityDTO>> activities =
+                submit("activity", activityService::getRecentActivities, lastActivities, partial);
+
+        // Each future completes by its timeout at the latest, so join() is bounded
+        DashboardStatsDTO stats = new DashboardStatsDTO(
+                joinOrQuery(users, adminStatsService::getUserCount, lastUserCount),
+                joinOrQuery(posts, adminStatsService::getPostCount, lastPostCount),
+                joinOrQuery(comments, adminStatsService::getCommentCount, lastCommentCount),
+                joinOrQuery(activities, activityService::getRecentActivities, lastActivities));
+        stats.setPartial(partial.get());
+        return stats;
+    }
+
+    private <T> CompletableFuture<T> submit(String source, Supplier<T> query, AtomicReference<T> lastGood,
+            AtomicBoolean partial) {
+        // Null when there is nothing to fall back on; joinOrQuery then asks the source directly
+        Supplier<T> fallback = () -> {
+            T last = lastGood.get();
+            if (last != null) {
+                partial.set(true);
+                meterRegistry.counter("dashboard_source_fallback_total", "source", source).increment();
+            }
+            return last;
+        };
+
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(query, executor);
+        } catch (RuntimeException e) {
+            // Pool saturated: don't queue behind other dashboards, answer with what we have
+            return CompletableFuture.completedFuture(fallback.get());
+        }
+
+        return future
+                .thenApply(value -> {
+                    lastGood.set(value);
+                    return value;
+                })
+                .completeOnTimeout(null, sourceTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    logger.warn("Dashboard source '{}' failed: {}", source, e.getMessage());
+                    return null;
+                })
+                .thenApply(value -> value != null ? value : fallback.get());
+    }
+
+    // Runs on the caller: the fallback itself may run on the shared CompletableFuture timeout thread
+    private static <T> T joinOrQuery(CompletableFuture<T> future, Supplier<T> query, AtomicReference<T> lastGood) {
+        T value = future.join();
+        if (value == null) {
+            value = query.get();
+            lastGood.set(value);
+        }
+        return value;
+    }
 
-        return new DashboardStatsDTO(userCount, postCount, commentCount, recentActivities);
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
     }
 }
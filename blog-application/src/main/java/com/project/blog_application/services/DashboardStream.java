@@ -0,0 +1,263 @@
+package com.project.blog_application.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.blog_application.DTO.DashboardStatsDTO;
+import com.project.blog_application.DTO.RecentActivityDTO;
+import com.project.blog_application.exceptions.ServiceBusyException;
+import com.project.blog_application.services.PlatformCounters.Metric;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes live dashboard updates to connected admin dashboards over Server-Sent Events.
+ *
+ * One scheduled producer compares the platform counters and the activity feed with what it last
+ * sent and, when something changed, serializes a single "counters" and/or "activity" event that is
+ * offered to every subscriber. The cost of a tick does not depend on the number of dashboards.
+ *
+ * Each subscriber has a bounded queue drained by a small shared sender pool, so a slow connection
+ * never blocks the producer or the other subscribers. A subscriber whose queue overflows is
+ * disconnected rather than silently skipping deltas; on reconnect it starts again from a snapshot.
+ */
+@Component
+public class DashboardStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStream.class);
+
+    private record CountersEvent(long userCount, long postCount, long commentCount,
+                                 long userDelta, long postDelta, long commentDelta) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed = false;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private void offer(Set<DataWithMediaType> event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                droppedSubscribers.incrementAndGet();
+                logger.debug("Dropping slow dashboard subscriber ({} events buffered)", queue.size());
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> event;
+                while (!closed && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter callbacks remove the subscriber
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // An event may have been queued after the last poll but before the flag was cleared
+            if (!closed && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void close() {
+            if (!closed) {
+                closed = true;
+                subscribers.remove(this);
+                queue.clear();
+                emitter.complete();
+            }
+        }
+    }
+
+    private final PlatformCounters platformCounters;
+    private final ActivityFeed activityFeed;
+    private final DashboardService dashboardService;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long emitterTimeoutMs;
+    private final long heartbeatIntervalMs;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final AtomicInteger droppedSubscribers = new AtomicInteger();
+
+    // Producer state, only touched from the scheduled tick
+    private final Map<Metric, Long> lastCounts = new EnumMap<>(Metric.class);
+    private long activityCursor;
+    private long lastSentAt = System.currentTimeMillis();
+
+    public DashboardStream(
+            PlatformCounters platformCounters,
+            ActivityFeed activityFeed,
+            DashboardService dashboardService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${dashboard.stream.buffer-size:64}") int bufferSize,
+            @Value("${dashboard.stream.max-subscribers:500}") int maxSubscribers,
+            @Value("${dashboard.stream.sender-threads:4}") int senderThreads,
+            @Value("${dashboard.stream.timeout-ms:1800000}") long emitterTimeoutMs,
+            @Value("${dashboard.stream.heartbeat-interval-ms:15000}") long heartbeatIntervalMs
+    ) {
+        this.platformCounters = platformCounters;
+        this.activityFeed = activityFeed;
+        this.dashboardService = dashboardService;
+        this.objectMapper = objectMapper;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxSubscribers = maxSubscribers;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(Math.max(1, senderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-sse-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (Metric metric : Metric.values()) {
+            lastCounts.put(metric, platformCounters.get(metric));
+        }
+        this.activityCursor = activityFeed.headSequence();
+
+        Gauge.builder("dashboard.stream.subscribers", subscribers, Set::size)
+                .description("Open dashboard SSE connections")
+                .register(meterRegistry);
+        Gauge.builder("dashboard.stream.dropped", droppedSubscribers, AtomicInteger::get)
+                .description("Dashboard SSE connections dropped for falling behind")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream for one dashboard. The first event is a "snapshot" with the full dashboard
+     * stats; "counters" and "activity" events follow as things change.
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceBusyException("Too many open dashboard streams");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        DashboardStatsDTO snapshot = dashboardService.getDashboardStats();
+        subscribers.add(subscriber);
+        subscriber.offer(event("snapshot", snapshot));
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.stream.tick-ms:1000}")
+    public void tick() {
+        Map<Metric, Long> deltas = new EnumMap<>(Metric.class);
+        boolean countersChanged = false;
+        for (Metric metric : Metric.values()) {
+            long current = platformCounters.get(metric);
+            long delta = current - lastCounts.put(metric, current);
+            deltas.put(metric, delta);
+            countersChanged |= delta != 0;
+        }
+
+        List<RecentActivityDTO> activity = new ArrayList<>();
+        // The feed restarts its sequence when it is seeded
+        if (activityCursor > activityFeed.headSequence()) {
+            activityCursor = activityFeed.headSequence();
+        }
+        activityCursor = activityFeed.since(activityCursor, activity);
+
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (countersChanged) {
+            broadcast(event("counters", new CountersEvent(
+                    lastCounts.get(Metric.USERS), lastCounts.get(Metric.POSTS), lastCounts.get(Metric.COMMENTS),
+                    deltas.get(Metric.USERS), deltas.get(Metric.POSTS), deltas.get(Metric.COMMENTS))));
+            lastSentAt = now;
+        }
+        if (!activity.isEmpty()) {
+            broadcast(event("activity", activity));
+            lastSentAt = now;
+        }
+        // Keeps idle connections open through proxies and detects clients that went away
+        if (now - lastSentAt >= heartbeatIntervalMs) {
+            broadcast(SseEmitter.event().comment("heartbeat").build());
+            lastSentAt = now;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        senders.shutdownNow();
+    }
+
+    private void broadcast(Set<DataWithMediaType> event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    // Serialized and framed once, then shared by every subscriber
+    private Set<DataWithMediaType> event(String name, Object payload) {
+        try {
+            return SseEmitter.event().name(name)
+                    .data(objectMapper.writeValueAsString(payload), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize dashboard event " + name, e);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.project.blog_application.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Durable queue of uploads to release once the post or user that owned them is gone.
+ *
+ * {@link #enqueue} inserts into pending_file_deletions inside the caller's transaction, so an entry
+ * exists exactly when the owning change commits: a rollback takes the entry with it and the file
+ * stays. After commit a background worker is woken; it also polls, which picks up entries left by a
+ * crash or by another node.
+ *
+ * The worker leases a batch of due entries (FOR UPDATE SKIP LOCKED, so nodes never share one) and
+ * releases each file in its own transaction together with deleting the entry, which keeps a blob's
+ * reference count from being dropped twice. Failures are retried with exponential backoff; after
+ * max-attempts the entry is dropped and the file is left to the orphan sweeper.
+ */
+@Service
+public class FileDeletionQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileDeletionQueue.class);
+
+    private record Entry(long id, String filename, int attempts) {
+    }
+
+    private final FileStorageService fileStorageService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long leaseMs;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+    private final ThreadPoolExecutor worker;
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    private final Counter deletedFiles;
+    private final Counter failedAttempts;
+    private final Counter abandoned;
+    private final AtomicLong backlog = new AtomicLong();
+
+    public FileDeletionQueue(
+            FileStorageService fileStorageService,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${file.deletion-queue.batch-size:100}") int batchSize,
+            @Value("${file.deletion-queue.max-attempts:8}") int maxAttempts,
+            @Value("${file.deletion-queue.lease-ms:300000}") long leaseMs,
+            @Value("${file.deletion-queue.retry-base-ms:5000}") long retryBaseMs,
+            @Value("${file.deletion-queue.retry-max-ms:3600000}") long retryMaxMs
+    ) {
+        this.fileStorageService = fileStorageService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.leaseMs = leaseMs;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+
+        // One worker; a wake-up while one is already queued adds nothing
+        this.worker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "file-deletion-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.deletedFiles = Counter.builder("uploads_deletion_queue_processed_total")
+                .description("Queued upload deletions carried out")
+                .register(meterRegistry);
+        this.failedAttempts = Counter.builder("uploads_deletion_queue_failures_total")
+                .description("Queued upload deletions that failed and were rescheduled")
+                .register(meterRegistry);
+        this.abandoned = Counter.builder("uploads_deletion_queue_abandoned_total")
+                .description("Queued upload deletions dropped after max-attempts")
+                .register(meterRegistry);
+        Gauge.builder("uploads_deletion_queue_backlog", backlog, AtomicLong::get)
+                .description("Entries in pending_file_deletions at the last poll")
+                .register(meterRegistry);
+    }
+
+    public void enqueue(String filename) {
+        if (filename != null && !filename.isBlank()) {
+            enqueue(List.of(filename));
+        }
+    }
+
+    // Joins the caller's transaction; the worker runs once it commits
+    public void enqueue(Collection<String> filenames) {
+        List<Object[]> rows = new ArrayList<>(filenames.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (String filename : filenames) {
+            if (filename != null && !filename.isBlank()) {
+                rows.add(new Object[]{filename, now, now});
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO pending_file_deletions (filename, attempts, next_attempt_at, created_at) VALUES (?, 0, ?, ?)",
+                rows);
+        AfterCommit.run(this::wakeUp);
+    }
+
+    @Scheduled(fixedDelayString = "${file.deletion-queue.poll-interval-ms:30000}")
+    public void poll() {
+        drain();
+        backlog.set(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pending_file_deletions", Long.class));
+    }
+
+    private void wakeUp() {
+        try {
+            worker.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // A drain is already queued and will see these entries
+        }
+    }
+
+    private void drain() {
+        if (!drainLock.tryLock()) {
+            return;
+        }
+        try {
+            List<Entry> batch;
+            do {
+                batch = lease();
+                for (Entry entry : batch) {
+                    process(entry);
+                }
+            } while (batch.size() == batchSize);
+        } catch (RuntimeException e) {
+            logger.warn("File deletion queue drain failed, will retry: {}", e.getMessage());
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    // Claims due entries by pushing their next attempt past the lease, so a crashed worker's entries come back
+    private List<Entry> lease() {
+        List<Entry> batch = transactionTemplate.execute(status -> {
+            List<Entry> due = jdbcTemplate.query(
+                    "SELECT id, filename, attempts FROM pending_file_deletions WHERE next_attempt_at <= ? "
+                            + "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED",
+                    (rs, rowNum) -> new Entry(rs.getLong("id"), rs.getString("filename"), rs.getInt("attempts")),
+                    Timestamp.valueOf(LocalDateTime.now()), batchSize);
+            if (due.isEmpty()) {
+                return due;
+            }
+            List<Object> args = new ArrayList<>(due.size() + 1);
+            args.add(Timestamp.valueOf(LocalDateTime.now().plus(Duration.ofMillis(leaseMs))));
+            due.forEach(entry -> args.add(entry.id()));
+            jdbcTemplate.update("UPDATE pending_file_deletions SET next_attempt_at = ? WHERE id IN ("
+                    + String.join(",", Collections.nCopies(due.size(), "?")) + ")", args.toArray());
+            return due;
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    private void process(Entry entry) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                fileStorageService.delete(entry.filename());
+                jdbcTemplate.update("DELETE FROM pending_file_deletions WHERE id = ?", entry.id());
+            });
+            deletedFiles.increment();
+        } catch (RuntimeException e) {
+            int attempts = entry.attempts() + 1;
+            if (attempts >= maxAttempts) {
+                abandoned.increment();
+                logger.error("Giving up deleting {} after {} attempts: {}", entry.filename(), attempts, e.getMessage());
+                jdbcTemplate.update("DELETE FROM pending_file_deletions WHERE id = ?", entry.id());
+                return;
+            }
+            failedAttempts.increment();
+            long delayMs = Math.min(retryMaxMs, retryBaseMs << Math.min(attempts - 1, 20));
+            jdbcTemplate.update(
+                    "UPDATE pending_file_deletions SET attempts = ?, next_attempt_at = ?, last_error = ? WHERE id = ?",
+                    attempts, Timestamp.valueOf(LocalDateTime.now().plus(Duration.ofMillis(delayMs))),
+                    truncate(e.getMessage()), entry.id());
+            logger.warn("Deleting {} failed (attempt {}), retrying in {} ms: {}", entry.filename(), attempts, delayMs, e.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+}
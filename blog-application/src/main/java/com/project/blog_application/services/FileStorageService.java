@@ -1,30 +1,71 @@
 package com.project.blog_application.services;
 
+import com.project.blog_application.exceptions.InvalidUploadException;
+import com.project.blog_application.exceptions.PayloadTooLargeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.*;
-import java.util.Objects;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @Service
 public class FileStorageService {
 
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+
+    // Bytes handed to FileChannel.transferFrom per call; the size limit is checked between calls
+    private static final long TRANSFER_CHUNK = 256 * 1024;
+
+    public static final String BLOB_DIR = "blobs";
+
+    private static final String UPSERT_BLOB_SQL =
+            "INSERT INTO file_blobs (name, sha256, size_bytes, ref_count, created_at, touched_at) VALUES (?, ?, ?, 1, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, touched_at = VALUES(touched_at)";
+
     private final Path uploadRoot;
+    private final Path tempDir;
     private final String publicBasePath;
+    private final ImageVariantService imageVariantService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
 
     public FileStorageService(
             @Value("${file.upload-dir}") String uploadDir,
-            @Value("${file.public-base-path:/uploads}") String publicBasePath
+            @Value("${file.public-base-path:/uploads}") String publicBasePath,
+            ImageVariantService imageVariantService,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager
     ) {
         this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        // Same file system as the blobs, so the final rename is atomic
+        this.tempDir = uploadRoot.resolve("tmp");
         this.publicBasePath = publicBasePath;
+        this.imageVariantService = imageVariantService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
 
         try {
             Files.createDirectories(this.uploadRoot);
+            Files.createDirectories(this.tempDir);
         } catch (IOException e) {
             throw new IllegalStateException("Could not create upload directory", e);
         }
@@ -36,28 +77,112 @@ public class FileStorageService {
     public String store(MultipartFile file) {
         validateFile(file);
 
-        String cleanFilename = generateSafeFilename(file.getOriginalFilename());
-        Path destination = uploadRoot.resolve(cleanFilename);
-
         try (InputStream inputStream = file.getInputStream()) {
-            Files.copy(inputStream, destination, StandardCopyOption.REPLACE_EXISTING);
+            return storeStream(inputStream, file.getOriginalFilename(), Long.MAX_VALUE);
         } catch (IOException e) {
-            throw new RuntimeException("Failed to store file " + cleanFilename, e);
+            throw new RuntimeException("Failed to store file " + file.getOriginalFilename(), e);
         }
-
-        return cleanFilename;
     }
 
 
+    /**
+     * Streams an upload into content-addressed storage and returns the stored filename (NOT URL),
+     * e.g. {@code blobs/ab/cd/abcd...ef.png}.
+     *
+     * The bytes go into a temp file through FileChannel.transferFrom while a SHA-256 digest is
+     * computed on the way; stops as soon as more than maxBytes have arrived. Identical content is
+     * kept once: the blob's reference count is incremented first (row lock in file_blobs), and the
+     * temp file is only renamed into place if no copy exists yet.
+     */
+    public String storeStream(InputStream inputStream, String originalFilename, long maxBytes) {
+        MessageDigest digest = newDigest();
+        Path temp = tempDir.resolve(UUID.randomUUID() + ".part");
+
+        try {
+            long written = 0;
+            try (ReadableByteChannel source = Channels.newChannel(new DigestInputStream(inputStream, digest));
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                long transferred;
+                while ((transferred = target.transferFrom(source, written, TRANSFER_CHUNK)) > 0) {
+                    written += transferred;
+                    if (written > maxBytes) {
+                        throw new PayloadTooLargeException("File exceeds the limit of " + maxBytes + " bytes");
+                    }
+                }
+            }
+            if (written == 0) {
+                throw new InvalidUploadException("Cannot store empty file");
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            String storedName = blobName(sha256, safeExtension(originalFilename));
+            long size = written;
+
+            // Count the reference before placing the file: a concurrent delete of the last reference
+            // holds the row lock until its file is gone, so the existence check below is safe
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(UPSERT_BLOB_SQL,
+                    storedName, sha256, size, now, now));
+
+            Path destination = uploadRoot.resolve(storedName);
+            if (!Files.exists(destination)) {
+                Files.createDirectories(destination.getParent());
+                Files.move(temp, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            imageVariantService.submit(storedName);
+            return storedName;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store file " + originalFilename, e);
+        } finally {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                logger.warn("Failed to delete temp file {}", temp, e);
+            }
+        }
+    }
+
+    /**
+     * Drops one reference to a stored file. A content-addressed blob (and its variants) is removed
+     * when its last reference goes; legacy files stored under random names are removed directly.
+     * Runs from {@link FileDeletionQueue} once the owning row is gone, and throws when the file could
+     * not be removed so the queue retries.
+     */
     public void delete(String filename) {
         if (filename == null || filename.isBlank()) return;
 
+        String storedName = storedName(filename);
+        if (!storedName.startsWith(BLOB_DIR + "/")) {
+            deleteFile(storedName);
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> refs = jdbcTemplate.queryForList(
+                    "SELECT ref_count FROM file_blobs WHERE name = ? FOR UPDATE", Long.class, storedName);
+            if (refs.isEmpty()) {
+                return; // unknown blob: leave the file alone
+            }
+            if (refs.get(0) > 1) {
+                jdbcTemplate.update("UPDATE file_blobs SET ref_count = ref_count - 1 WHERE name = ?", storedName);
+                return;
+            }
+            jdbcTemplate.update("DELETE FROM file_blobs WHERE name = ?", storedName);
+            // Still under the row lock, so a concurrent upload of the same content re-creates the file after us
+            deleteFile(storedName);
+        });
+    }
+
+    // Removes the file and its variants; callers handle the file_blobs row and retry on failure
+    void deleteFile(String storedName) {
+        imageVariantService.deleteVariants(storedName);
         try {
-            Path filePath = uploadRoot.resolve(filename).normalize();
-            Files.deleteIfExists(filePath);
+            Path filePath = uploadRoot.resolve(storedName).normalize();
+            if (filePath.startsWith(uploadRoot)) {
+                Files.deleteIfExists(filePath);
+            }
         } catch (IOException e) {
-            // Do NOT crash app for cleanup failure
-            System.err.println("Failed to delete file: " + filename);
+            throw new RuntimeException("Failed to delete file " + storedName, e);
         }
     }
 
@@ -72,20 +197,48 @@ public class FileStorageService {
     }
 
 
+    // Resized variant for the context (thumbnail, card, full); the original until the variant exists
+    public String buildVariantUrl(String filename, ImageVariantService.Variant variant) {
+        if (filename == null || filename.isBlank()) return null;
+
+        String variantName = imageVariantService.variantName(storedName(filename), variant);
+        return buildPublicUrl(variantName != null ? variantName : filename);
+    }
+
+    // Filename relative to uploadRoot, for values stored with the public prefix
+    String storedName(String filename) {
+        if (filename.startsWith(publicBasePath + "/")) {
+            return filename.substring(publicBasePath.length() + 1);
+        }
+        return filename;
+    }
+
     private void validateFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("Cannot store empty file");
         }
     }
 
-    private String generateSafeFilename(String originalFilename) {
-        String ext = "";
+    // blobs/ab/cd/<sha256><ext>: two levels of 256 directories keep each one small
+    private static String blobName(String sha256, String extension) {
+        return BLOB_DIR + "/" + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + extension;
+    }
 
-        if (originalFilename != null && originalFilename.contains(".")) {
-            ext = originalFilename.substring(originalFilename.lastIndexOf("."));
+    // Keeps a short alphanumeric extension so the static handler still serves the right content type
+    private static String safeExtension(String originalFilename) {
+        if (originalFilename == null || !originalFilename.contains(".")) {
+            return "";
         }
+        String ext = originalFilename.substring(originalFilename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return ext.matches("[a-z0-9]{1,10}") ? "." + ext : "";
+    }
 
-        return UUID.randomUUID() + ext;
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
 }
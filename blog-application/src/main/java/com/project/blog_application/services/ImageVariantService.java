@@ -0,0 +1,304 @@
+package com.project.blog_application.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background generation of resized image variants for uploads.
+ *
+ * Each stored image gets a thumbnail (avatars), a card (feed) and a full (post page) variant,
+ * written as progressive JPEGs under {@code <upload-dir>/variants} (mirroring the source's directories). Variants are produced on
+ * a small bounded pool, largest first, each scaled from the previous one. Huge sources are decoded
+ * with subsampling so a 20 MB upload never has to be held at full resolution.
+ *
+ * The variant files on disk are the record: {@link #variantName} returns a variant only once its
+ * file exists, otherwise null so callers fall back to the original. Files uploaded before this
+ * pipeline existed are queued the first time a variant is asked for.
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+
+    public static final String VARIANT_DIR = "variants";
+
+    public enum Variant {
+        THUMB(160), CARD(640), FULL(1600);
+
+        private final int maxDimension;
+
+        Variant(int maxDimension) {
+            this.maxDimension = maxDimension;
+        }
+
+        private String suffix() {
+            return "_" + name().toLowerCase();
+        }
+    }
+
+    private final Path uploadRoot;
+    private final Path variantRoot;
+    private final boolean enabled;
+    private final float quality;
+    private final long maxPixels;
+    private final ThreadPoolExecutor executor;
+    private final Timer processTimer;
+
+    // Sources with all variants on disk, sources being processed, and sources that cannot be decoded
+    private final Set<String> ready = ConcurrentHashMap.newKeySet();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Set<String> unsupported = ConcurrentHashMap.newKeySet();
+
+    public ImageVariantService(
+            MeterRegistry meterRegistry,
+            @Value("${file.upload-dir}") String uploadDir,
+            @Value("${images.variants.enabled:true}") boolean enabled,
+            @Value("${images.variants.threads:2}") int threads,
+            @Value("${images.variants.queue-capacity:100}") int queueCapacity,
+            @Value("${images.variants.jpeg-quality:0.8}") float quality,
+            @Value("${images.variants.max-source-pixels:50000000}") long maxPixels
+    ) {
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.variantRoot = uploadRoot.resolve(VARIANT_DIR);
+        this.enabled = enabled;
+        this.quality = quality;
+        this.maxPixels = maxPixels;
+
+        try {
+            Files.createDirectories(variantRoot);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create image variant directory", e);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.processTimer = Timer.builder("images_variant_processing_duration")
+                .description("Time to decode an upload and write all of its variants")
+                .register(meterRegistry);
+        Gauge.builder("images_variant_queue_depth", executor, e -> e.getQueue().size())
+                .description("Uploads waiting for variant generation")
+                .register(meterRegistry);
+    }
+
+    // Queues variant generation for a stored upload; a full queue just defers it to the first read
+    public void submit(String filename) {
+        if (!enabled || filename == null || ready.contains(filename) || unsupported.contains(filename)) {
+            return;
+        }
+        if (!inFlight.add(filename)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    processTimer.record(() -> process(filename));
+                } finally {
+                    inFlight.remove(filename);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(filename);
+            logger.debug("Variant queue full, deferring {}", filename);
+        }
+    }
+
+    /**
+     * Stored name of the variant relative to the upload dir (e.g. {@code variants/abc_card.jpg}),
+     * or null when it does not exist (yet).
+     */
+    public String variantName(String filename, Variant variant) {
+        if (!enabled || filename == null || filename.isBlank() || unsupported.contains(filename)) {
+            return null;
+        }
+        if (!ready.contains(filename)) {
+            if (!Files.exists(variantPath(filename, Variant.THUMB))) {
+                submit(filename);
+                return null;
+            }
+            ready.add(filename);
+        }
+        return VARIANT_DIR + "/" + variantFilename(filename, variant);
+    }
+
+    public void deleteVariants(String filename) {
+        if (filename == null || filename.isBlank()) {
+            return;
+        }
+        ready.remove(filename);
+        // A new file may be stored under the same name later; let it be tried again
+        unsupported.remove(filename);
+        for (Variant variant : Variant.values()) {
+            try {
+                Files.deleteIfExists(variantPath(filename, variant));
+            } catch (IOException e) {
+                logger.warn("Failed to delete variant {} of {}: {}", variant, filename, e.getMessage());
+            }
+        }
+    }
+
+    // Only sources that cannot be decoded are given up on; I/O failures are retried on the next submit
+    void process(String filename) {
+        Path source = uploadRoot.resolve(filename).normalize();
+        if (!source.startsWith(uploadRoot)) {
+            unsupported.add(filename);
+            return;
+        }
+        if (!Files.isRegularFile(source)) {
+            return;
+        }
+
+        try {
+            BufferedImage image = decode(source, Variant.FULL.maxDimension);
+            if (image == null) {
+                unsupported.add(filename);
+                return;
+            }
+
+            // Largest first; the thumbnail goes last because its presence marks the set as complete
+            BufferedImage previous = image;
+            for (Variant variant : new Variant[]{Variant.FULL, Variant.CARD, Variant.THUMB}) {
+                previous = scale(previous, variant.maxDimension);
+                writeJpeg(previous, variantPath(filename, variant));
+            }
+            ready.add(filename);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not generate variants for {}: {}", filename, e.getMessage());
+        }
+    }
+
+    // Reads the image, subsampling large sources so the decoded raster stays near twice the target size
+    private BufferedImage decode(Path source, int targetDimension) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    logger.warn("Skipping variants for {}x{} image, above the pixel limit", width, height);
+                    return null;
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (2 * targetDimension));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Fits the image into a maxDimension square on an opaque RGB canvas (JPEG has no alpha)
+    private static BufferedImage scale(BufferedImage source, int maxDimension) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        if (ratio == 1.0 && source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, targetWidth, targetHeight);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    // Written to a temp file and renamed, so a half-written variant is never served
+    private void writeJpeg(BufferedImage image, Path destination) throws IOException {
+        Files.createDirectories(destination.getParent());
+        Path temp = destination.resolveSibling("." + destination.getFileName() + ".part");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        Files.move(temp, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path variantPath(String filename, Variant variant) {
+        return variantRoot.resolve(variantFilename(filename, variant));
+    }
+
+    // Mirrors the source's directories, so sharded blobs get sharded variants
+    private static String variantFilename(String filename, Variant variant) {
+        int slash = filename.lastIndexOf('/');
+        String dir = slash >= 0 ? filename.substring(0, slash + 1) : "";
+        String base = filename.substring(slash + 1);
+        int dot = base.lastIndexOf('.');
+        if (dot > 0) {
+            base = base.substring(0, dot);
+        }
+        return dir + base + variant.suffix() + ".jpg";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,219 @@
+package com.project.blog_application.services;
+
+import com.project.blog_application.repository.LikeRepository;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process like graph: one compressed bitmap of user ids per post and one of post ids per user.
+ *
+ * Loaded once at startup from the likes table in keyset chunks, then kept current by LikeService.
+ * Until loading finishes {@link #isReady()} is false and callers fall back to SQL. Mutations made
+ * while loading are replayed afterwards, so a chunk read before an unlike cannot resurrect the edge.
+ *
+ * The index is per node; with several backend nodes each one only sees its own toggles.
+ */
+@Component
+public class LikeGraphIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeGraphIndex.class);
+
+    private record Mutation(long userId, long blogPostId, boolean liked) {
+    }
+
+    private final LikeRepository likeRepository;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    private final Map<Long, Roaring64Bitmap> usersByPost = new ConcurrentHashMap<>();
+    private final Map<Long, Roaring64Bitmap> postsByUser = new ConcurrentHashMap<>();
+
+    private final Object loadLock = new Object();
+    private List<Mutation> replayLog = new ArrayList<>();
+    private volatile boolean ready = false;
+
+    public LikeGraphIndex(
+            LikeRepository likeRepository,
+            @Value("${likes.index.enabled:true}") boolean enabled,
+            @Value("${likes.index.load-chunk-size:10000}") int chunkSize
+    ) {
+        this.likeRepository = likeRepository;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread loader = new Thread(this::load, "like-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void load() {
+        long started = System.currentTimeMillis();
+        long afterId = 0L;
+        long edges = 0L;
+
+        try {
+            while (true) {
+                List<Object[]> chunk = likeRepository.findEdgesAfter(afterId, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                for (Object[] row : chunk) {
+                    addEdge((Long) row[1], (Long) row[2]);
+                }
+                afterId = (Long) chunk.get(chunk.size() - 1)[0];
+                edges += chunk.size();
+            }
+
+            synchronized (loadLock) {
+                for (Mutation mutation : replayLog) {
+                    applyEdge(mutation.userId(), mutation.blogPostId(), mutation.liked());
+                }
+                replayLog = null;
+                ready = true;
+            }
+            logger.info("Like index loaded: {} likes, {} posts, {} users in {} ms",
+                    edges, usersByPost.size(), postsByUser.size(), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            logger.error("Like index load failed, like reads stay on SQL: {}", e.getMessage(), e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void recordLike(long userId, long blogPostId) {
+        record(userId, blogPostId, true);
+    }
+
+    public void recordUnlike(long userId, long blogPostId) {
+        record(userId, blogPostId, false);
+    }
+
+    public void removePost(long blogPostId) {
+        Roaring64Bitmap users = usersByPost.remove(blogPostId);
+        if (users == null) {
+            return;
+        }
+        for (long userId : snapshot(users)) {
+            Roaring64Bitmap posts = postsByUser.get(userId);
+            if (posts != null) {
+                synchronized (posts) {
+                    posts.removeLong(blogPostId);
+                }
+            }
+        }
+    }
+
+    public void removeUser(long userId) {
+        Roaring64Bitmap posts = postsByUser.remove(userId);
+        if (posts == null) {
+            return;
+        }
+        for (long blogPostId : snapshot(posts)) {
+            Roaring64Bitmap users = usersByPost.get(blogPostId);
+            if (users != null) {
+                synchronized (users) {
+                    users.removeLong(userId);
+                }
+            }
+        }
+    }
+
+    public boolean hasLiked(long userId, long blogPostId) {
+        Roaring64Bitmap users = usersByPost.get(blogPostId);
+        if (users == null) {
+            return false;
+        }
+        synchronized (users) {
+            return users.contains(userId);
+        }
+    }
+
+    public long likeCount(long blogPostId) {
+        Roaring64Bitmap users = usersByPost.get(blogPostId);
+        if (users == null) {
+            return 0L;
+        }
+        synchronized (users) {
+            return users.getLongCardinality();
+        }
+    }
+
+    // Post ids liked by the user, ascending
+    public long[] likedPostIds(long userId) {
+        Roaring64Bitmap posts = postsByUser.get(userId);
+        return posts == null ? new long[0] : snapshot(posts);
+    }
+
+    private void record(long userId, long blogPostId, boolean liked) {
+        if (!enabled) {
+            return;
+        }
+        if (!ready) {
+            synchronized (loadLock) {
+                if (replayLog != null) {
+                    replayLog.add(new Mutation(userId, blogPostId, liked));
+                }
+            }
+        }
+        applyEdge(userId, blogPostId, liked);
+    }
+
+    private void applyEdge(long userId, long blogPostId, boolean liked) {
+        if (liked) {
+            addEdge(userId, blogPostId);
+        } else {
+            removeEdge(userId, blogPostId);
+        }
+    }
+
+    private void addEdge(long userId, long blogPostId) {
+        Roaring64Bitmap users = usersByPost.computeIfAbsent(blogPostId, id -> new Roaring64Bitmap());
+        synchronized (users) {
+            users.addLong(userId);
+        }
+        Roaring64Bitmap posts = postsByUser.computeIfAbsent(userId, id -> new Roaring64Bitmap());
+        synchronized (posts) {
+            posts.addLong(blogPostId);
+        }
+    }
+
+    private void removeEdge(long userId, long blogPostId) {
+        Roaring64Bitmap users = usersByPost.get(blogPostId);
+        if (users != null) {
+            synchronized (users) {
+                users.removeLong(userId);
+            }
+        }
+        Roaring64Bitmap posts = postsByUser.get(userId);
+        if (posts != null) {
+            synchronized (posts) {
+                posts.removeLong(blogPostId);
+            }
+        }
+    }
+
+    private static long[] snapshot(Roaring64Bitmap bitmap) {
+        synchronized (bitmap) {
+            return bitmap.toArray();
+        }
+    }
+}
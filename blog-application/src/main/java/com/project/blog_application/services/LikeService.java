@@ -4,14 +4,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.project.blog_application.entities.BlogPost;
-import com.project.blog_application.entities.Like;
 import com.project.blog_application.entities.User;
+import com.project.blog_application.exceptions.ResourceNotFoundException;
 import com.project.blog_application.repository.BlogPostRepository;
 import com.project.blog_application.repository.LikeRepository;
 import com.project.blog_application.repository.UserRepository;
 
 import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -20,63 +23,182 @@ public class LikeService {
     private final LikeRepository likeRepository;
     private final UserRepository userRepository;
     private final BlogPostRepository blogPostRepository;
+    private final LikeWriteBehindBuffer likeWriteBehindBuffer;
+    private final LikeGraphIndex likeGraphIndex;
+    private final AnalyticsRollupService analyticsRollups;
 
     @Autowired
     public LikeService(LikeRepository likeRepository, UserRepository userRepository,
-            BlogPostRepository blogPostRepository) {
+            BlogPostRepository blogPostRepository, LikeWriteBehindBuffer likeWriteBehindBuffer,
+            LikeGraphIndex likeGraphIndex, AnalyticsRollupService analyticsRollups) {
         this.likeRepository = likeRepository;
         this.userRepository = userRepository;
         this.blogPostRepository = blogPostRepository;
+        this.likeWriteBehindBuffer = likeWriteBehindBuffer;
+        this.likeGraphIndex = likeGraphIndex;
+        this.analyticsRollups = analyticsRollups;
     }
 
 
     @Transactional
     public String toggleLike(Long userId, Long blogPostId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        Optional<BlogPost> blogPostOptional = blogPostRepository.findById(blogPostId);
-        
-        if (userOptional.isPresent() && blogPostOptional.isPresent()) {
-            User user = userOptional.get();
-            BlogPost blogPost = blogPostOptional.get();
-            
-            // Check if the user already liked this post
-            boolean hasLiked = likeRepository.existsByBlogPostIdAndUserId(blogPostId, userId);
-            
-            if (hasLiked) {
-                // User already liked the post, so unlike it
-                likeRepository.deleteByBlogPostIdAndUserId(blogPostId, userId);
-                return "Post unliked successfully.";
-            } else {
-                // User hasn't liked the post yet, so add a new like
-                Like like = new Like();
-                like.setUser(user);
-                like.setBlogPost(blogPost);
-                likeRepository.save(like);
-                return "Post liked successfully.";
+        if (likeWriteBehindBuffer.isEnabled()) {
+            // Buffered: one existence check at most, the write is batched later
+            LikeWriteBehindBuffer.Transition transition = likeWriteBehindBuffer.toggle(userId, blogPostId,
+                    () -> persistedLikeState(userId, blogPostId));
+            recordInIndex(userId, blogPostId, transition.current());
+            if (transition.changed() && transition.current()) {
+                analyticsRollups.record(AnalyticsRollupService.Metric.LIKES);
             }
+            return transition.current() ? "Post liked successfully." : "Post unliked successfully.";
         }
-        
+
+        // Try the statement the index predicts first; the other one only runs if it was a no-op
+        boolean likedBefore = likeGraphIndex.isReady() && likeGraphIndex.hasLiked(userId, blogPostId);
+        if (likedBefore ? unlikeStatement(userId, blogPostId) : likeStatement(userId, blogPostId)) {
+            return likedBefore ? "Post unliked successfully." : "Post liked successfully.";
+        }
+        if (likedBefore ? likeStatement(userId, blogPostId) : unlikeStatement(userId, blogPostId)) {
+            return likedBefore ? "Post liked successfully." : "Post unliked successfully.";
+        }
+
         throw new RuntimeException("User or BlogPost not found for userId=" + userId + ", blogPostId=" + blogPostId);
     }
+
+    /**
+     * Idempotent like. One INSERT IGNORE, no lookups of the user or post.
+     *
+     * @return true if the like was created, false if it already existed
+     * @throws ResourceNotFoundException if nothing was inserted because the user or post does not exist
+     */
+    @Transactional
+    public boolean like(Long userId, Long blogPostId) {
+        if (likeWriteBehindBuffer.isEnabled()) {
+            return setBuffered(userId, blogPostId, true);
+        }
+        if (likeStatement(userId, blogPostId)) {
+            return true;
+        }
+        // No-op path only: tell "already liked" apart from a missing user or post
+        if (!userRepository.existsById(userId) || !blogPostRepository.existsById(blogPostId)) {
+            throw new ResourceNotFoundException(
+                    "User or BlogPost not found for userId=" + userId + ", blogPostId=" + blogPostId);
+        }
+        return false;
+    }
+
+    /**
+     * Idempotent unlike. One DELETE by foreign keys.
+     *
+     * @return true if a like was removed, false if there was none
+     */
+    @Transactional
+    public boolean unlike(Long userId, Long blogPostId) {
+        if (likeWriteBehindBuffer.isEnabled()) {
+            return setBuffered(userId, blogPostId, false);
+        }
+        return unlikeStatement(userId, blogPostId);
+    }
+
+    private boolean likeStatement(Long userId, Long blogPostId) {
+        if (likeRepository.insertIfAbsent(userId, blogPostId) == 0) {
+            return false;
+        }
+        AfterCommit.run(() -> likeGraphIndex.recordLike(userId, blogPostId));
+        analyticsRollups.record(AnalyticsRollupService.Metric.LIKES);
+        return true;
+    }
+
+    private boolean unlikeStatement(Long userId, Long blogPostId) {
+        if (likeRepository.deleteIfPresent(userId, blogPostId) == 0) {
+            return false;
+        }
+        AfterCommit.run(() -> likeGraphIndex.recordUnlike(userId, blogPostId));
+        return true;
+    }
+
+    private boolean setBuffered(Long userId, Long blogPostId, boolean liked) {
+        LikeWriteBehindBuffer.Transition transition = likeWriteBehindBuffer.set(userId, blogPostId, liked,
+                () -> persistedLikeState(userId, blogPostId));
+        if (transition.changed()) {
+            recordInIndex(userId, blogPostId, liked);
+            if (liked) {
+                analyticsRollups.record(AnalyticsRollupService.Metric.LIKES);
+            }
+        }
+        return transition.changed();
+    }
+
+    // The index mirrors what the user sees, so buffered writes update it now rather than on flush
+    private void recordInIndex(Long userId, Long blogPostId, boolean liked) {
+        if (liked) {
+            likeGraphIndex.recordLike(userId, blogPostId);
+        } else {
+            likeGraphIndex.recordUnlike(userId, blogPostId);
+        }
+    }
     
 
     public Long getLikeCount(Long blogPostId) {
-        return likeRepository.countByBlogPostId(blogPostId);
+        if (likeGraphIndex.isReady()) {
+            return likeGraphIndex.likeCount(blogPostId);
+        }
+        return likeRepository.countByBlogPostId(blogPostId) + likeWriteBehindBuffer.pendingDelta(blogPostId);
     }
     
 
     public boolean hasUserLiked(Long userId, Long blogPostId) {
+        if (likeGraphIndex.isReady()) {
+            return likeGraphIndex.hasLiked(userId, blogPostId);
+        }
+        Boolean pending = likeWriteBehindBuffer.pendingState(userId, blogPostId);
+        if (pending != null) {
+            return pending;
+        }
         return likeRepository.existsByBlogPostIdAndUserId(blogPostId, userId);
     }
     
 
     public List<BlogPost> getLikedBlogPosts(Long userId) {
+        if (likeGraphIndex.isReady()) {
+            // Like lookup is a bitmap read; only the post rows themselves come from the DB
+            long[] likedIds = likeGraphIndex.likedPostIds(userId);
+            if (likedIds.length == 0) {
+                return List.of();
+            }
+            return blogPostRepository.findAllById(Arrays.stream(likedIds).boxed().toList());
+        }
+
         Optional<User> userOptional = userRepository.findById(userId);
         
         if (userOptional.isPresent()) {
-            return likeRepository.findBlogPostsLikedByUser(userId);
+            List<BlogPost> likedPosts = likeRepository.findBlogPostsLikedByUser(userId);
+            Map<Long, Boolean> pending = likeWriteBehindBuffer.pendingStatesForUser(userId);
+            if (pending.isEmpty()) {
+                return likedPosts;
+            }
+
+            // Overlay buffered toggles: drop pending unlikes, add pending likes not yet written
+            List<BlogPost> merged = new ArrayList<>(likedPosts);
+            merged.removeIf(post -> Boolean.FALSE.equals(pending.remove(post.getId())));
+            List<Long> pendingLikes = pending.entrySet().stream()
+                    .filter(Map.Entry::getValue)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            if (!pendingLikes.isEmpty()) {
+                merged.addAll(blogPostRepository.findAllById(pendingLikes));
+            }
+            return merged;
         }
         
         throw new RuntimeException("User not found for userId=" + userId);
     }
+
+    // DB state of a like; answered from the in-memory index once it is loaded
+    private boolean persistedLikeState(Long userId, Long blogPostId) {
+        if (likeGraphIndex.isReady()) {
+            return likeGraphIndex.hasLiked(userId, blogPostId);
+        }
+        return likeRepository.existsByBlogPostIdAndUserId(blogPostId, userId);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,289 @@
+package com.project.blog_application.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Optional write-behind buffer for like toggles.
+ *
+ * Toggles are recorded per (user, post) in a set of striped concurrent maps, so repeated clicks collapse
+ * into a single pending state. Pending states are flushed to the likes table as JDBC batches on a fixed
+ * delay, or inline when the buffer reaches its configured size. Reads overlay the pending state so a user
+ * sees their own like before it is written.
+ *
+ * Buffered writes skip the user/post lookups; rows whose user or post no longer exists are dropped by
+ * INSERT IGNORE when the batch is flushed.
+ */
+@Component
+public class LikeWriteBehindBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeWriteBehindBuffer.class);
+
+    private static final String INSERT_SQL =
+            "INSERT IGNORE INTO likes (user_id, blog_post_id, created_at) VALUES (?, ?, ?)";
+    private static final String DELETE_SQL =
+            "DELETE FROM likes WHERE user_id = ? AND blog_post_id = ?";
+
+    public record Transition(boolean previous, boolean current) {
+        public boolean changed() {
+            return previous != current;
+        }
+    }
+
+    private record LikeKey(long userId, long blogPostId) {
+    }
+
+    // persisted = state the DB will have once in-flight batches land, desired = state the user asked for
+    private record PendingLike(boolean persisted, boolean desired, LocalDateTime changedAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxPending;
+    private final int batchSize;
+
+    private final ConcurrentHashMap<LikeKey, PendingLike>[] stripes;
+    private final ConcurrentHashMap<LikeKey, PendingLike> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> pendingDeltas = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @SuppressWarnings("unchecked")
+    public LikeWriteBehindBuffer(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${likes.write-behind.enabled:false}") boolean enabled,
+            @Value("${likes.write-behind.max-pending:10000}") int maxPending,
+            @Value("${likes.write-behind.batch-size:500}") int batchSize,
+            @Value("${likes.write-behind.stripes:16}") int stripeCount
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+
+        this.stripes = new ConcurrentHashMap[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+
+        if (enabled) {
+            logger.info("Like write-behind enabled (stripes: {}, max pending: {}, batch size: {})",
+                    stripes.length, maxPending, batchSize);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Transition toggle(long userId, long blogPostId, BooleanSupplier persistedState) {
+        return apply(userId, blogPostId, liked -> !liked, persistedState);
+    }
+
+    public Transition set(long userId, long blogPostId, boolean liked, BooleanSupplier persistedState) {
+        return apply(userId, blogPostId, ignored -> liked, persistedState);
+    }
+
+    // Returns the buffered state for (user, post), or null when the DB is authoritative
+    public Boolean pendingState(long userId, long blogPostId) {
+        LikeKey key = new LikeKey(userId, blogPostId);
+        PendingLike pending = stripeFor(key).get(key);
+        if (pending == null) {
+            pending = inFlight.get(key);
+        }
+        return pending != null ? pending.desired() : null;
+    }
+
+    // Net like count change for a post that has not reached the DB yet
+    public long pendingDelta(long blogPostId) {
+        return pendingDeltas.getOrDefault(blogPostId, 0L);
+    }
+
+    // Buffered states for one user, keyed by post id. Scans the buffer, so only for low-traffic reads.
+    public Map<Long, Boolean> pendingStatesForUser(long userId) {
+        Map<Long, Boolean> states = new HashMap<>();
+        inFlight.forEach((key, pending) -> {
+            if (key.userId() == userId) states.put(key.blogPostId(), pending.desired());
+        });
+        for (ConcurrentHashMap<LikeKey, PendingLike> stripe : stripes) {
+            stripe.forEach((key, pending) -> {
+                if (key.userId() == userId) states.put(key.blogPostId(), pending.desired());
+            });
+        }
+        return states;
+    }
+
+    public long pendingCount() {
+        long count = 0;
+        for (ConcurrentHashMap<LikeKey, PendingLike> stripe : stripes) {
+            count += stripe.mappingCount();
+        }
+        return count;
+    }
+
+    private Transition apply(long userId, long blogPostId, UnaryOperator<Boolean> next, BooleanSupplier persistedState) {
+        LikeKey key = new LikeKey(userId, blogPostId);
+        ConcurrentHashMap<LikeKey, PendingLike> stripe = stripeFor(key);
+
+        // Resolve the DB state outside the map's bin lock; only needed when nothing is buffered yet
+        Boolean known = pendingState(userId, blogPostId);
+        boolean base = known != null ? known : persistedState.getAsBoolean();
+
+        boolean[] previous = new boolean[1];
+        boolean[] current = new boolean[1];
+        stripe.compute(key, (k, old) -> {
+            boolean persisted;
+            if (old != null) {
+                persisted = old.persisted();
+                previous[0] = old.desired();
+            } else {
+                PendingLike flying = inFlight.get(k);
+                persisted = flying != null ? flying.desired() : base;
+                previous[0] = persisted;
+            }
+            current[0] = next.apply(previous[0]);
+
+            // Toggled back to what the DB holds: nothing left to write
+            if (current[0] == persisted) {
+                return null;
+            }
+            return new PendingLike(persisted, current[0], LocalDateTime.now());
+        });
+
+        if (previous[0] != current[0]) {
+            addDelta(blogPostId, current[0] ? 1 : -1);
+        }
+
+        if (pendingCount() >= maxPending) {
+            flush();
+        }
+        return new Transition(previous[0], current[0]);
+    }
+
+    @Scheduled(fixedDelayString = "${likes.write-behind.flush-interval-ms:500}")
+    public void scheduledFlush() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    /**
+     * Drains the buffer and writes it as insert/delete batches in one transaction.
+     * Only one thread flushes at a time; concurrent callers return immediately.
+     */
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            Map<LikeKey, PendingLike> drained = drain();
+            if (drained.isEmpty()) {
+                return;
+            }
+
+            List<Object[]> inserts = new ArrayList<>();
+            List<Object[]> deletes = new ArrayList<>();
+            drained.forEach((key, pending) -> {
+                if (pending.desired()) {
+                    inserts.add(new Object[]{key.userId(), key.blogPostId(), Timestamp.valueOf(pending.changedAt())});
+                } else {
+                    deletes.add(new Object[]{key.userId(), key.blogPostId()});
+                }
+            });
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    writeBatches(DELETE_SQL, deletes);
+                    writeBatches(INSERT_SQL, inserts);
+                });
+            } catch (RuntimeException e) {
+                logger.warn("Like flush of {} entries failed, re-queueing: {}", drained.size(), e.getMessage());
+                requeue(drained);
+                return;
+            }
+
+            drained.forEach((key, pending) -> {
+                inFlight.remove(key, pending);
+                addDelta(key.blogPostId(), pending.desired() ? -1 : 1);
+            });
+            logger.debug("Flushed {} like inserts and {} deletes", inserts.size(), deletes.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private Map<LikeKey, PendingLike> drain() {
+        Map<LikeKey, PendingLike> drained = new HashMap<>();
+        for (ConcurrentHashMap<LikeKey, PendingLike> stripe : stripes) {
+            for (Map.Entry<LikeKey, PendingLike> entry : stripe.entrySet()) {
+                LikeKey key = entry.getKey();
+                PendingLike pending = entry.getValue();
+
+                // Publish to in-flight before removing, so readers never fall through to a stale DB row
+                inFlight.put(key, pending);
+                if (stripe.remove(key, pending)) {
+                    drained.put(key, pending);
+                } else {
+                    inFlight.remove(key, pending);
+                }
+            }
+        }
+        return drained;
+    }
+
+    private void requeue(Map<LikeKey, PendingLike> drained) {
+        drained.forEach((key, pending) -> {
+            stripeFor(key).compute(key, (k, current) -> {
+                boolean desired = current != null ? current.desired() : pending.desired();
+                if (desired == pending.persisted()) {
+                    return null;
+                }
+                return new PendingLike(pending.persisted(), desired, pending.changedAt());
+            });
+            inFlight.remove(key, pending);
+        });
+    }
+
+    private void writeBatches(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+    }
+
+    private void addDelta(long blogPostId, long delta) {
+        pendingDeltas.merge(blogPostId, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    private ConcurrentHashMap<LikeKey, PendingLike> stripeFor(LikeKey key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+}
@@ -0,0 +1,93 @@
+package com.project.blog_application.services;
+
+import com.project.blog_application.repository.BlogPostRepository;
+import com.project.blog_application.repository.CommentRepository;
+import com.project.blog_application.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Platform-wide user, post and comment totals for the admin dashboard.
+ *
+ * Seeded from COUNT queries when the application is ready, then moved by the create/delete paths
+ * (after commit) so reads cost nothing. A periodic reconciliation re-counts and corrects any drift,
+ * e.g. from writes made by another node or a write racing the seed query.
+ */
+@Component
+public class PlatformCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlatformCounters.class);
+
+    public enum Metric {
+        USERS, POSTS, COMMENTS
+    }
+
+    private final UserRepository userRepository;
+    private final BlogPostRepository blogPostRepository;
+    private final CommentRepository commentRepository;
+
+    private final Map<Metric, LongAdder> counters = new EnumMap<>(Metric.class);
+    private volatile boolean seeded = false;
+
+    public PlatformCounters(UserRepository userRepository, BlogPostRepository blogPostRepository,
+            CommentRepository commentRepository) {
+        this.userRepository = userRepository;
+        this.blogPostRepository = blogPostRepository;
+        this.commentRepository = commentRepository;
+        for (Metric metric : Metric.values()) {
+            counters.put(metric, new LongAdder());
+        }
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public long get(Metric metric) {
+        return counters.get(metric).sum();
+    }
+
+    // Applies a change once the current transaction commits (immediately outside one)
+    public void adjust(Metric metric, long delta) {
+        if (delta != 0) {
+            AfterCommit.run(() -> counters.get(metric).add(delta));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.counters.reconcile-interval-ms:300000}",
+            initialDelayString = "${dashboard.counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            align(Metric.USERS, userRepository.count());
+            align(Metric.POSTS, blogPostRepository.count());
+            align(Metric.COMMENTS, commentRepository.countOnLivePosts());
+            seeded = true;
+        } catch (RuntimeException e) {
+            logger.warn("Platform counter reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    private void align(Metric metric, long actual) {
+        LongAdder counter = counters.get(metric);
+        long drift = actual - counter.sum();
+        if (drift != 0) {
+            counter.add(drift);
+            if (seeded) {
+                logger.info("Reconciled {} counter by {} to {}", metric, drift, actual);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.project.blog_application.services;
+
+import com.project.blog_application.DTO.EnrichablePostDTO;
+import com.project.blog_application.repository.BlogPostRepository;
+import com.project.blog_application.repository.LikeRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batch loader for feed engagement data.
+ *
+ * Collects the post ids of a page and resolves like counts, comment counts and the viewer's
+ * "liked" flags in one pass: a GROUP BY for likes, a primary-key IN lookup of the denormalized
+ * comment counters, and one IN query for the viewer - or the in-memory like index when it is
+ * loaded. Replaces the per-post count/status calls.
+ */
+@Service
+public class PostEnrichmentService {
+
+    private final LikeRepository likeRepository;
+    private final BlogPostRepository blogPostRepository;
+    private final LikeGraphIndex likeGraphIndex;
+    private final LikeWriteBehindBuffer likeWriteBehindBuffer;
+
+    public PostEnrichmentService(LikeRepository likeRepository, BlogPostRepository blogPostRepository,
+            LikeGraphIndex likeGraphIndex, LikeWriteBehindBuffer likeWriteBehindBuffer) {
+        this.likeRepository = likeRepository;
+        this.blogPostRepository = blogPostRepository;
+        this.likeGraphIndex = likeGraphIndex;
+        this.likeWriteBehindBuffer = likeWriteBehindBuffer;
+    }
+
+    // Annotated itself: the call below is on this, not through the transactional proxy
+    @Transactional(readOnly = true)
+    public <T extends EnrichablePostDTO> T enrich(T post, Long viewerId) {
+        enrich(List.of(post), viewerId);
+        return post;
+    }
+
+    @Transactional(readOnly = true)
+    public <T extends EnrichablePostDTO> List<T> enrich(List<T> posts, Long viewerId) {
+        if (posts == null || posts.isEmpty()) {
+            return posts;
+        }
+
+        Set<Long> ids = new LinkedHashSet<>();
+        for (T post : posts) {
+            ids.add(post.getId());
+        }
+
+        Map<Long, Long> likeCounts = loadLikeCounts(ids);
+        Map<Long, Long> commentCounts = toCountMap(blogPostRepository.findCommentCounts(ids));
+        Set<Long> liked = loadViewerLikes(viewerId, ids);
+
+        for (T post : posts) {
+            Long id = post.getId();
+            post.setLikeCount(likeCounts.getOrDefault(id, 0L));
+            post.setCommentCount(commentCounts.getOrDefault(id, 0L));
+            post.setLikedByViewer(liked.contains(id));
+        }
+        return posts;
+    }
+
+    private Map<Long, Long> loadLikeCounts(Set<Long> ids) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (likeGraphIndex.isReady()) {
+            for (Long id : ids) {
+                counts.put(id, likeGraphIndex.likeCount(id));
+            }
+            return counts;
+        }
+
+        counts.putAll(toCountMap(likeRepository.countByBlogPostIds(ids)));
+        for (Long id : ids) {
+            long delta = likeWriteBehindBuffer.pendingDelta(id);
+            if (delta != 0) {
+                counts.merge(id, delta, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    private Set<Long> loadViewerLikes(Long viewerId, Set<Long> ids) {
+        Set<Long> liked = new HashSet<>();
+        if (viewerId == null) {
+            return liked;
+        }
+
+        if (likeGraphIndex.isReady()) {
+            for (Long id : ids) {
+                if (likeGraphIndex.hasLiked(viewerId, id)) {
+                    liked.add(id);
+                }
+            }
+            return liked;
+        }
+
+        liked.addAll(likeRepository.findLikedPostIds(viewerId, ids));
+        for (Long id : ids) {
+            Boolean pending = likeWriteBehindBuffer.pendingState(viewerId, id);
+            if (pending != null) {
+                if (pending) liked.add(id);
+                else liked.remove(id);
+            }
+        }
+        return liked;
+    }
+
+    private static Map<Long, Long> toCountMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+}
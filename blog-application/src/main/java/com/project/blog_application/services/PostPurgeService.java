@@ -0,0 +1,152 @@
+package com.project.blog_application.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Physically removes soft-deleted posts, with their likes, comments and images.
+ *
+ * Deleting a post only flips is_deleted; the post's rows stay until this job picks them up, once
+ * they are older than the grace period. Work is throttled: each run purges at most max-batches of
+ * batch-size posts, pauses between batches, and stops as soon as more than max-active-requests
+ * HTTP requests are in flight, so it only makes progress while traffic is low. Each batch is its own
+ * transaction (FOR UPDATE SKIP LOCKED, so nodes never purge the same posts) and hands the images to
+ * the file deletion queue.
+ */
+@Service
+public class PostPurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostPurgeService.class);
+
+    // Registered by Spring Boot's HTTP server observation: requests currently being handled
+    private static final String ACTIVE_REQUESTS_METER = "http.server.requests.active";
+
+    private record PurgeBatch(List<Long> postIds, long comments, long likes) {
+    }
+
+    private final ContentDeletionService contentDeletionService;
+    private final FileDeletionQueue fileDeletionQueue;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration gracePeriod;
+    private final int batchSize;
+    private final int maxBatches;
+    private final long pauseMs;
+    private final int maxActiveRequests;
+
+    private final Counter purgedPosts;
+    private final Counter deferredRuns;
+    private final ReentrantLock purgeLock = new ReentrantLock();
+
+    public PostPurgeService(
+            ContentDeletionService contentDeletionService,
+            FileDeletionQueue fileDeletionQueue,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${posts.purge.enabled:true}") boolean enabled,
+            @Value("${posts.purge.grace-period-ms:600000}") long gracePeriodMs,
+            @Value("${posts.purge.batch-size:50}") int batchSize,
+            @Value("${posts.purge.max-batches:20}") int maxBatches,
+            @Value("${posts.purge.pause-ms:200}") long pauseMs,
+            @Value("${posts.purge.max-active-requests:5}") int maxActiveRequests
+    ) {
+        this.contentDeletionService = contentDeletionService;
+        this.fileDeletionQueue = fileDeletionQueue;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.gracePeriod = Duration.ofMillis(gracePeriodMs);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatches = Math.max(1, maxBatches);
+        this.pauseMs = pauseMs;
+        this.maxActiveRequests = maxActiveRequests;
+
+        this.purgedPosts = Counter.builder("posts_purged_total")
+                .description("Soft-deleted posts physically removed")
+                .register(meterRegistry);
+        this.deferredRuns = Counter.builder("posts_purge_deferred_total")
+                .description("Purge batches skipped because traffic was too high")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${posts.purge.interval-ms:60000}",
+            fixedDelayString = "${posts.purge.interval-ms:60000}")
+    public void purge() {
+        if (!enabled || !purgeLock.tryLock()) {
+            return;
+        }
+        try {
+            for (int batch = 0; batch < maxBatches; batch++) {
+                if (busy()) {
+                    deferredRuns.increment();
+                    return;
+                }
+                PurgeBatch purged = transactionTemplate.execute(status -> purgeBatch());
+                if (purged == null || purged.postIds().isEmpty()) {
+                    return;
+                }
+                purgedPosts.increment(purged.postIds().size());
+                logger.info("Purged {} soft-deleted posts ({} comments, {} likes)",
+                        purged.postIds().size(), purged.comments(), purged.likes());
+                if (purged.postIds().size() < batchSize) {
+                    return;
+                }
+                Thread.sleep(pauseMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.warn("Post purge failed, will retry: {}", e.getMessage());
+        } finally {
+            purgeLock.unlock();
+        }
+    }
+
+    private PurgeBatch purgeBatch() {
+        List<Long> postIds = new ArrayList<>();
+        List<String> images = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT id, image_url FROM blog_posts WHERE is_deleted = 1 AND deleted_at < ? "
+                        + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                rs -> {
+                    postIds.add(rs.getLong("id"));
+                    String imageUrl = rs.getString("image_url");
+                    if (imageUrl != null && !imageUrl.isEmpty()) {
+                        images.add(imageUrl);
+                    }
+                },
+                Timestamp.valueOf(LocalDateTime.now().minus(gracePeriod)), batchSize);
+        if (postIds.isEmpty()) {
+            return new PurgeBatch(postIds, 0, 0);
+        }
+
+        ContentDeletionService.PostRemoval removal = contentDeletionService.deletePosts(postIds);
+        fileDeletionQueue.enqueue(images);
+        return new PurgeBatch(postIds, removal.comments(), removal.likes());
+    }
+
+    private boolean busy() {
+        LongTaskTimer active = meterRegistry.find(ACTIVE_REQUESTS_METER).longTaskTimer();
+        return active != null && active.activeTasks() > maxActiveRequests;
+    }
+}
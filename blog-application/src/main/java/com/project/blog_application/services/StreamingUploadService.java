@@ -0,0 +1,138 @@
+package com.project.blog_application.services;
+
+import com.project.blog_application.exceptions.InvalidUploadException;
+import com.project.blog_application.exceptions.PayloadTooLargeException;
+import com.project.blog_application.exceptions.ServiceBusyException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.tomcat.util.http.fileupload.FileItemIterator;
+import org.apache.tomcat.util.http.fileupload.FileItemStream;
+import org.apache.tomcat.util.http.fileupload.FileUpload;
+import org.apache.tomcat.util.http.fileupload.FileUploadException;
+import org.apache.tomcat.util.http.fileupload.impl.SizeException;
+import org.apache.tomcat.util.http.fileupload.servlet.ServletRequestContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streaming multipart uploads on a dedicated, bounded I/O pool.
+ *
+ * The request body is parsed part by part as it arrives (using the multipart parser bundled with the
+ * embedded Tomcat) and the file part is written straight to its final location by
+ * {@link FileStorageService#storeStream}; nothing is buffered in memory or staged by the servlet
+ * container. Request and file size limits are enforced while streaming. When the pool and its queue
+ * are full the upload is refused with a 503 instead of occupying another request thread.
+ */
+@Service
+public class StreamingUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingUploadService.class);
+
+    public record StoredUpload(String filename, String url, String contentType) {
+    }
+
+    private final FileStorageService fileStorageService;
+    private final ThreadPoolExecutor executor;
+    private final long maxFileSize;
+    private final long maxRequestSize;
+
+    public StreamingUploadService(
+            FileStorageService fileStorageService,
+            MeterRegistry meterRegistry,
+            @Value("${file.upload.streaming.threads:4}") int threads,
+            @Value("${file.upload.streaming.queue-capacity:16}") int queueCapacity,
+            @Value("${file.upload.streaming.max-file-size:20971520}") long maxFileSize,
+            @Value("${file.upload.streaming.max-request-size:22020096}") long maxRequestSize
+    ) {
+        this.fileStorageService = fileStorageService;
+        this.maxFileSize = maxFileSize;
+        this.maxRequestSize = maxRequestSize;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "upload-io-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("uploads_streaming_queue_depth", executor, e -> e.getQueue().size())
+                .description("Streaming uploads waiting for an I/O worker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stores the "file" part of a multipart request. The request must be in async mode (the
+     * controller returns the future) so the body can be read from the upload pool.
+     */
+    public CompletableFuture<StoredUpload> upload(HttpServletRequest request) {
+        long declaredLength = request.getContentLengthLong();
+        if (declaredLength > maxRequestSize) {
+            throw new PayloadTooLargeException("Request exceeds the limit of " + maxRequestSize + " bytes");
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> readFilePart(request), executor);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException("Upload capacity exhausted, retry shortly");
+        }
+    }
+
+    private StoredUpload readFilePart(HttpServletRequest request) {
+        FileUpload parser = new FileUpload();
+        parser.setSizeMax(maxRequestSize);
+        parser.setFileSizeMax(maxFileSize);
+        parser.setFileCountMax(10);
+
+        try {
+            FileItemIterator parts = parser.getItemIterator(new ServletRequestContext(request));
+            while (parts.hasNext()) {
+                FileItemStream part = parts.next();
+                if (part.isFormField() || !"file".equals(part.getFieldName())) {
+                    continue;
+                }
+                try (InputStream in = part.openStream()) {
+                    String filename = fileStorageService.storeStream(in, part.getName(), maxFileSize);
+                    logger.debug("Streamed upload stored as {}", filename);
+                    return new StoredUpload(filename, fileStorageService.buildPublicUrl(filename), part.getContentType());
+                }
+            }
+        } catch (SizeException e) {
+            throw new PayloadTooLargeException(e.getMessage());
+        } catch (FileUploadException e) {
+            throw new InvalidUploadException("Malformed multipart request", e);
+        } catch (IOException e) {
+            // Limits hit inside a part stream surface as an IOException wrapping the SizeException
+            if (e.getCause() instanceof SizeException) {
+                throw new PayloadTooLargeException(e.getCause().getMessage());
+            }
+            throw new InvalidUploadException("Upload interrupted", e);
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof IOException && e.getCause().getCause() instanceof SizeException size) {
+                throw new PayloadTooLargeException(size.getMessage());
+            }
+            throw e;
+        }
+        throw new InvalidUploadException("Request has no 'file' part");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,303 @@
+package com.project.blog_application.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Removes uploads that no post or user references any more.
+ *
+ * Each run walks the next batch of files under file.upload-dir in a stable (sorted) order, resuming
+ * after the last file of the previous run and starting over once the whole tree has been covered.
+ * The batch's names are looked up in blog_posts.image_url and users.profile_picture with a pair of
+ * IN queries (both the bare stored name and the /uploads-prefixed form count as a reference).
+ *
+ * A file is only removed once it is older than the grace period, so uploads that have not been
+ * attached to their post or user yet are safe. Content-addressed blobs are re-checked under their
+ * file_blobs row lock; a blob that is still referenced gets its reference count corrected instead.
+ * Abandoned temp files are removed the same way. Variants are never swept directly: they go with
+ * their source.
+ */
+@Service
+public class UploadOrphanSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadOrphanSweeper.class);
+
+    private record Candidate(String storedName, Path path, long sizeBytes, Instant lastModified) {
+    }
+
+    private record BlobRow(long refCount, Instant touchedAt) {
+    }
+
+    private final Path uploadRoot;
+    private final FileStorageService fileStorageService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration gracePeriod;
+
+    private final Counter scannedFiles;
+    private final Counter reclaimedFiles;
+    private final Counter reclaimedBytes;
+
+    private final ReentrantLock sweepLock = new ReentrantLock();
+    // Relative path of the last file examined; null starts a new pass from the top
+    private volatile String cursor;
+
+    public UploadOrphanSweeper(
+            FileStorageService fileStorageService,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${file.upload-dir}") String uploadDir,
+            @Value("${file.orphan-sweeper.enabled:true}") boolean enabled,
+            @Value("${file.orphan-sweeper.batch-size:200}") int batchSize,
+            @Value("${file.orphan-sweeper.grace-period-ms:86400000}") long gracePeriodMs
+    ) {
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.fileStorageService = fileStorageService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.gracePeriod = Duration.ofMillis(gracePeriodMs);
+
+        this.scannedFiles = Counter.builder("uploads_orphan_scanned_files_total")
+                .description("Upload files examined by the orphan sweeper")
+                .register(meterRegistry);
+        this.reclaimedFiles = Counter.builder("uploads_orphan_reclaimed_files_total")
+                .description("Unreferenced upload files removed by the orphan sweeper")
+                .register(meterRegistry);
+        this.reclaimedBytes = Counter.builder("uploads_orphan_reclaimed_bytes_total")
+                .description("Bytes freed by the orphan sweeper (originals only, variants not counted)")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${file.orphan-sweeper.initial-delay-ms:300000}",
+            fixedDelayString = "${file.orphan-sweeper.interval-ms:600000}")
+    public void sweep() {
+        if (!enabled || !sweepLock.tryLock()) {
+            return;
+        }
+        try {
+            sweepBatch();
+        } catch (RuntimeException | IOException e) {
+            logger.warn("Orphan sweep failed, will retry: {}", e.getMessage());
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    private void sweepBatch() throws IOException {
+        List<Candidate> batch = new ArrayList<>(batchSize);
+        collect(uploadRoot, batch);
+        // A short batch means the walk reached the end of the tree
+        cursor = batch.size() < batchSize ? null : batch.get(batch.size() - 1).storedName();
+        if (batch.isEmpty()) {
+            return;
+        }
+        scannedFiles.increment(batch.size());
+
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        List<Candidate> uploads = new ArrayList<>(batch.size());
+        int reclaimed = 0;
+        for (Candidate candidate : batch) {
+            if (candidate.storedName().startsWith("tmp/")) {
+                // Temp files are never referenced; anything this old belongs to an upload that died
+                if (candidate.lastModified().isBefore(cutoff) && removeFile(candidate)) {
+                    reclaimed++;
+                }
+            } else {
+                uploads.add(candidate);
+            }
+        }
+
+        Map<String, Integer> references = countReferences(uploads.stream().map(Candidate::storedName).toList());
+        for (Candidate candidate : uploads) {
+            int refs = references.getOrDefault(candidate.storedName(), 0);
+            try {
+                if (candidate.storedName().startsWith(FileStorageService.BLOB_DIR + "/")) {
+                    if (reconcileBlob(candidate, refs, cutoff)) {
+                        reclaimed++;
+                    }
+                } else if (refs == 0 && candidate.lastModified().isBefore(cutoff)) {
+                    fileStorageService.deleteFile(candidate.storedName());
+                    record(candidate);
+                    reclaimed++;
+                }
+            } catch (RuntimeException e) {
+                // Picked up again on the next pass
+                logger.warn("Could not remove {}: {}", candidate.storedName(), e.getMessage());
+            }
+        }
+        if (reclaimed > 0) {
+            logger.info("Orphan sweep removed {} of {} files", reclaimed, batch.size());
+        }
+    }
+
+    /**
+     * Brings a blob's reference count in line with the references found, removing it when there are
+     * none. The row lock and a second reference count inside the transaction keep an upload or a
+     * delete that races with the sweep from being lost.
+     */
+    private boolean reconcileBlob(Candidate candidate, int refsSeen, Instant cutoff) {
+        String name = candidate.storedName();
+        Boolean removed = transactionTemplate.execute(status -> {
+            List<BlobRow> rows = jdbcTemplate.query(
+                    "SELECT ref_count, COALESCE(touched_at, created_at) AS touched_at FROM file_blobs WHERE name = ? FOR UPDATE",
+                    (rs, rowNum) -> new BlobRow(rs.getLong("ref_count"), rs.getTimestamp("touched_at").toInstant()),
+                    name);
+            if (rows.isEmpty()) {
+                // A file without a row was never handed out (or its row is gone): treat it like a legacy file
+                if (refsSeen > 0 || !candidate.lastModified().isBefore(cutoff)) {
+                    return false;
+                }
+                fileStorageService.deleteFile(name);
+                return true;
+            }
+
+            if (!rows.get(0).touchedAt().isBefore(cutoff)) {
+                return false; // an upload added a reference recently; its post/user may not be saved yet
+            }
+            long refCount = rows.get(0).refCount();
+            int refs = countReferences(List.of(name)).getOrDefault(name, 0);
+            if (refs > 0) {
+                if (refs != refCount) {
+                    jdbcTemplate.update("UPDATE file_blobs SET ref_count = ? WHERE name = ?", refs, name);
+                    logger.debug("Corrected reference count of {} from {} to {}", name, refCount, refs);
+                }
+                return false;
+            }
+            jdbcTemplate.update("DELETE FROM file_blobs WHERE name = ?", name);
+            fileStorageService.deleteFile(name);
+            return true;
+        });
+        if (Boolean.TRUE.equals(removed)) {
+            record(candidate);
+            return true;
+        }
+        return false;
+    }
+
+    // Stored name -> number of posts and users pointing at it, for the names that have any
+    private Map<String, Integer> countReferences(List<String> storedNames) {
+        if (storedNames.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> byValue = new HashMap<>(storedNames.size() * 4);
+        List<Object> params = new ArrayList<>(storedNames.size() * 2);
+        for (String name : storedNames) {
+            String publicName = fileStorageService.buildPublicUrl(name);
+            byValue.put(name, name);
+            byValue.put(publicName, name);
+            params.add(name);
+            params.add(publicName);
+        }
+        String placeholders = String.join(",", Collections.nCopies(params.size(), "?"));
+        List<Object> args = new ArrayList<>(params.size() * 2);
+        args.addAll(params);
+        args.addAll(params);
+
+        Map<String, Integer> counts = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT image_url AS ref, COUNT(*) AS n FROM blog_posts WHERE image_url IN (" + placeholders + ") GROUP BY image_url "
+                        + "UNION ALL "
+                        + "SELECT profile_picture, COUNT(*) FROM users WHERE profile_picture IN (" + placeholders + ") GROUP BY profile_picture",
+                rs -> {
+                    String name = byValue.get(rs.getString("ref"));
+                    if (name != null) {
+                        counts.merge(name, rs.getInt("n"), Integer::sum);
+                    }
+                },
+                args.toArray());
+        return counts;
+    }
+
+    // Depth-first over sorted directory listings, skipping everything up to and including the cursor
+    private void collect(Path dir, List<Candidate> batch) throws IOException {
+        List<Path> children = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+            entries.forEach(children::add);
+        }
+        children.sort(Comparator.comparing(path -> path.getFileName().toString()));
+
+        for (Path child : children) {
+            if (batch.size() >= batchSize) {
+                return;
+            }
+            String relative = uploadRoot.relativize(child).toString().replace('\\', '/');
+            if (child.getFileName().toString().startsWith(".") || relative.equals(ImageVariantService.VARIANT_DIR)) {
+                continue;
+            }
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(child, BasicFileAttributes.class);
+            } catch (IOException e) {
+                continue; // removed while we were walking
+            }
+            if (attributes.isDirectory()) {
+                if (cursor == null || cursor.startsWith(relative + "/") || comparePaths(relative, cursor) > 0) {
+                    collect(child, batch);
+                }
+            } else if (attributes.isRegularFile() && (cursor == null || comparePaths(relative, cursor) > 0)) {
+                batch.add(new Candidate(relative, child, attributes.size(), attributes.lastModifiedTime().toInstant()));
+            }
+        }
+    }
+
+    // Orders paths the way the walk visits them: segment by segment, by name
+    private static int comparePaths(String a, String b) {
+        String[] left = a.split("/");
+        String[] right = b.split("/");
+        for (int i = 0; i < Math.min(left.length, right.length); i++) {
+            int cmp = left[i].compareTo(right[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(left.length, right.length);
+    }
+
+    private boolean removeFile(Candidate candidate) {
+        try {
+            if (Files.deleteIfExists(candidate.path())) {
+                record(candidate);
+                return true;
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to remove {}: {}", candidate.storedName(), e.getMessage());
+        }
+        return false;
+    }
+
+    private void record(Candidate candidate) {
+        reclaimedFiles.increment();
+        reclaimedBytes.increment(candidate.sizeBytes());
+        logger.debug("Removed unreferenced upload {} ({} bytes)", candidate.storedName(), candidate.sizeBytes());
+    }
+}
@@ -0,0 +1,157 @@
+package com.project.blog_application.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves public upload paths to files under file.upload-dir, with the validators and cache policy
+ * the serving controller needs.
+ *
+ * Content-addressed blobs and their variants never change under the same name, so they get a strong
+ * ETag derived from the hash and an immutable, year-long Cache-Control. Older uploads get a weak
+ * ETag from size and modification time and a shorter max-age.
+ *
+ * Small files are kept in an LRU byte cache bounded by total size. A cached entry is revalidated with
+ * one stat per hit, so a file deleted on any node stops being served.
+ */
+@Service
+public class UploadServingService {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    private static final CacheControl MUTABLE = CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic();
+
+    public record ServedFile(Path path, long length, long lastModified, String etag, CacheControl cacheControl,
+                             MediaType contentType, byte[] content) {
+        public boolean inMemory() {
+            return content != null;
+        }
+    }
+
+    private final Path uploadRoot;
+    private final long maxCachedFileSize;
+    private final long maxCacheBytes;
+
+    private final Object cacheLock = new Object();
+    private final LinkedHashMap<Path, ServedFile> cache = new LinkedHashMap<>(256, 0.75f, true);
+    private long cachedBytes = 0;
+
+    public UploadServingService(
+            MeterRegistry meterRegistry,
+            @Value("${file.upload-dir}") String uploadDir,
+            @Value("${file.serving.memory-cache.max-file-size:65536}") long maxCachedFileSize,
+            @Value("${file.serving.memory-cache.max-bytes:67108864}") long maxCacheBytes
+    ) {
+        this.uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.maxCachedFileSize = maxCachedFileSize;
+        this.maxCacheBytes = maxCacheBytes;
+
+        Gauge.builder("uploads_memory_cache_bytes", this, service -> service.cachedBytesSnapshot())
+                .description("Bytes of small uploads held in the serving cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The file for a path relative to the upload dir, or null when it does not exist or is not
+     * public (temp files, hidden files, anything outside the upload dir).
+     */
+    public ServedFile resolve(String relativePath) throws IOException {
+        if (relativePath == null || relativePath.isEmpty() || relativePath.startsWith("tmp/")
+                || relativePath.startsWith(".") || relativePath.contains("/.")) {
+            return null;
+        }
+        Path path = uploadRoot.resolve(relativePath).normalize();
+        if (!path.startsWith(uploadRoot)) {
+            return null;
+        }
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            evict(path);
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+
+        ServedFile cached;
+        synchronized (cacheLock) {
+            cached = cache.get(path);
+        }
+        if (cached != null && cached.length() == length && cached.lastModified() == lastModified) {
+            return cached;
+        }
+
+        boolean cacheable = length > 0 && length <= maxCachedFileSize;
+        ServedFile file = describe(path, relativePath, length, lastModified, cacheable ? Files.readAllBytes(path) : null);
+        if (cacheable) {
+            remember(file);
+        }
+        return file;
+    }
+
+    private ServedFile describe(Path path, String relativePath, long length, long lastModified, byte[] content) {
+        MediaType contentType = MediaTypeFactory.getMediaType(path.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        String prefix = FileStorageService.BLOB_DIR + "/";
+        if (relativePath.startsWith(prefix) || relativePath.startsWith(ImageVariantService.VARIANT_DIR + "/" + prefix)) {
+            // The name carries the content hash (plus the variant suffix), so it is a strong validator
+            String tag = "\"" + path.getFileName() + "\"";
+            return new ServedFile(path, length, lastModified, tag, IMMUTABLE, contentType, content);
+        }
+        String weak = "W/\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+        return new ServedFile(path, length, lastModified, weak, MUTABLE, contentType, content);
+    }
+
+    private void remember(ServedFile file) {
+        synchronized (cacheLock) {
+            ServedFile previous = cache.put(file.path(), file);
+            if (previous != null) {
+                cachedBytes -= previous.length();
+            }
+            cachedBytes += file.length();
+
+            Iterator<Map.Entry<Path, ServedFile>> eldest = cache.entrySet().iterator();
+            while (cachedBytes > maxCacheBytes && eldest.hasNext()) {
+                Map.Entry<Path, ServedFile> entry = eldest.next();
+                cachedBytes -= entry.getValue().length();
+                eldest.remove();
+            }
+        }
+    }
+
+    private void evict(Path path) {
+        synchronized (cacheLock) {
+            ServedFile removed = cache.remove(path);
+            if (removed != null) {
+                cachedBytes -= removed.length();
+            }
+        }
+    }
+
+    private long cachedBytesSnapshot() {
+        synchronized (cacheLock) {
+            return cachedBytes;
+        }
+    }
+}
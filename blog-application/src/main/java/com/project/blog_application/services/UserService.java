@@ -7,10 +7,10 @@ import com.project.blog_application.repository.BlogPostRepository;
 import com.project.blog_application.repository.CommentRepository;
 import com.project.blog_application.repository.UserRepository;
 import com.project.blog_application.security.JwtUtil;
+import com.project.blog_application.security.UserRevocationStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -31,19 +31,36 @@ public class UserService {
     private final UserRepository userRepository;
     private final BlogPostRepository blogPostRepository;
     private final CommentRepository commentRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
     private final FileStorageService fileStorageService;
+    private final LikeGraphIndex likeGraphIndex;
+    private final UserRevocationStore revocationStore;
+    private final PlatformCounters platformCounters;
+    private final ActivityFeed activityFeed;
+    private final AnalyticsRollupService analyticsRollups;
+    private final FileDeletionQueue fileDeletionQueue;
+    private final ContentDeletionService contentDeletionService;
 
     @Autowired
     public UserService(UserRepository userRepository, BlogPostRepository blogPostRepository,
-            CommentRepository commentRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil,
-            FileStorageService fileStorageService) {
+            CommentRepository commentRepository, PasswordHashingService passwordHashingService, JwtUtil jwtUtil,
+            FileStorageService fileStorageService, LikeGraphIndex likeGraphIndex,
+            UserRevocationStore revocationStore, PlatformCounters platformCounters, ActivityFeed activityFeed,
+            AnalyticsRollupService analyticsRollups, FileDeletionQueue fileDeletionQueue,
+            ContentDeletionService contentDeletionService) {
         this.fileStorageService = fileStorageService;
+        this.likeGraphIndex = likeGraphIndex;
+        this.revocationStore = revocationStore;
+        this.platformCounters = platformCounters;
+        this.activityFeed = activityFeed;
+        this.analyticsRollups = analyticsRollups;
+        this.fileDeletionQueue = fileDeletionQueue;
+        this.contentDeletionService = contentDeletionService;
         this.userRepository = userRepository;
         this.blogPostRepository = blogPostRepository;
         this.commentRepository = commentRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtUtil = jwtUtil;
         logger.info("UserService initialized with JwtUtil");
     }
@@ -72,9 +89,12 @@ public class UserService {
             user.setProfilePicture(profilePicturePath);
         }
 
-        user.setPassword(passwordEncoder.encode(user.getPassword())); // Hash the password
+        user.setPassword(passwordHashingService.encode(user.getPassword())); // Hash the password off the request thread
         user.setRole(isAdmin ? Role.ADMIN : Role.USER); // Set role based on flag
         User savedUser = userRepository.save(user);
+        platformCounters.adjust(PlatformCounters.Metric.USERS, 1);
+        activityFeed.record(ActivityFeed.memberActivity(savedUser.getUsername(), savedUser.getCreatedAt()));
+        analyticsRollups.record(AnalyticsRollupService.Metric.SIGNUPS);
         logger.info("User registered successfully: {}, role: {}", savedUser.getUsername(), savedUser.getRole());
         return savedUser;
     }
@@ -116,13 +136,17 @@ public class UserService {
                     logger.error("User not found with username: {}", username);
                     return new RuntimeException("Invalid credentials");
                 });
-        logger.info("User found: {}, stored password: {}, role: {}", user.getUsername(), user.getPassword(),
-                user.getRole());
-        if (passwordEncoder.matches(password, user.getPassword())) {
+        logger.debug("User found: {}, role: {}", user.getUsername(), user.getRole());
+        if (passwordHashingService.matches(password, user.getPassword())) {
             logger.info("Password matches for: {}, role: {}", username, user.getRole());
-            return jwtUtil.generateToken(user.getEmail(), user.getRole()); // Generate token with email
+            String current = user.getPassword();
+            if (passwordHashingService.needsUpgrade(current)) {
+                passwordHashingService.upgradeInBackground(password,
+                        upgraded -> userRepository.replacePasswordHash(user.getId(), current, upgraded));
+            }
+            return jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole()); // Generate token with email
         }
-        logger.error("Password does not match. Provided: {}, Stored: {}", password, user.getPassword());
+        logger.warn("Password does not match for user: {}", username);
         throw new RuntimeException("Invalid credentials");
     }
 
@@ -149,6 +173,8 @@ public class UserService {
     public User updateUser(Long id, User updatedUser, MultipartFile profilePicture) {
         logger.info("Updating user with ID: {}, new username: {}", id, updatedUser.getUsername());
         User existingUser = getUserById(id);
+        String previousEmail = existingUser.getEmail();
+        Role previousRole = existingUser.getRole();
 
         if (updatedUser.getUsername() != null) {
             existingUser.setUsername(updatedUser.getUsername());
@@ -157,7 +183,7 @@ public class UserService {
             existingUser.setEmail(updatedUser.getEmail());
         }
         if (updatedUser.getPassword() != null && !updatedUser.getPassword().isEmpty()) {
-            existingUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
+            existingUser.setPassword(passwordHashingService.encode(updatedUser.getPassword()));
         }
         if (updatedUser.getRole() != null) {
             existingUser.setRole(updatedUser.getRole());
@@ -167,10 +193,16 @@ public class UserService {
         if (profilePicture != null && !profilePicture.isEmpty()) {
             String profilePicturePath = fileStorageService.store(profilePicture);
 
+            // The replaced picture is released once the update commits
+            fileDeletionQueue.enqueue(existingUser.getProfilePicture());
             existingUser.setProfilePicture(profilePicturePath);
         }
 
         User savedUser = userRepository.save(existingUser);
+        // Tokens carry email and role, so older ones must stop working
+        if (!savedUser.getEmail().equals(previousEmail) || savedUser.getRole() != previousRole) {
+            revokeTokens(id);
+        }
         logger.info("User updated successfully: {}", savedUser.getUsername());
         return savedUser;
     }
@@ -179,10 +211,26 @@ public class UserService {
     public void deleteUser(Long id) {
         logger.info("Deleting user with ID: {}", id);
         User existingUser = getUserById(id);
-        userRepository.delete(existingUser);
+        // Set-based: likes, comments and posts go in a few DELETE statements instead of a JPA cascade
+        ContentDeletionService.UserRemoval removal = contentDeletionService.deleteUser(id);
+        List<Long> postIds = removal.postIds();
+        fileDeletionQueue.enqueue(removal.files());
+        platformCounters.adjust(PlatformCounters.Metric.USERS, -1);
+        platformCounters.adjust(PlatformCounters.Metric.POSTS, -postIds.size());
+        platformCounters.adjust(PlatformCounters.Metric.COMMENTS, -removal.comments());
+        revokeTokens(id);
+        AfterCommit.run(() -> {
+            likeGraphIndex.removeUser(id);
+            postIds.forEach(likeGraphIndex::removePost);
+        });
         logger.info("User and associated posts deleted: {}", existingUser.getUsername());
     }
 
+    // Rejects the user's existing tokens once the change is committed
+    public void revokeTokens(Long userId) {
+        AfterCommit.run(() -> revocationStore.revokeAll(userId));
+    }
+
     // User statistics - Using optimized count queries instead of loading entire collections
     // This fixes N+1 query problem by using direct COUNT queries
     public Map<String, Long> getUserStatistics(Long userId) {
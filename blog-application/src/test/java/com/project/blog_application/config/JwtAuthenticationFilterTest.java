@@ -0,0 +1,98 @@
+package com.project.blog_application.config;
+
+import com.project.blog_application.entities.Role;
+import com.project.blog_application.security.AuthenticatedUser;
+import com.project.blog_application.security.JwtUtil;
+import com.project.blog_application.security.TokenRevocationStore;
+import com.project.blog_application.security.UserRevocationStore;
+import com.project.blog_application.security.VerifiedToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final JwtUtil jwtUtil = mock(JwtUtil.class);
+    private final UserRevocationStore userRevocationStore = mock(UserRevocationStore.class);
+    private final TokenRevocationStore tokenRevocationStore = mock(TokenRevocationStore.class);
+    private final JwtAuthenticationFilter filter =
+            new JwtAuthenticationFilter(userDetailsService, jwtUtil, userRevocationStore, tokenRevocationStore);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static VerifiedToken token(String type, Long userId) {
+        Instant now = Instant.now();
+        return new VerifiedToken("jti-1", type, userId, "reader@example.com", "ROLE_ADMIN", now, now.plusSeconds(60));
+    }
+
+    private MockHttpServletRequest filter(VerifiedToken verified) throws Exception {
+        when(jwtUtil.verify("signed")).thenReturn(verified);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+        request.addHeader("Authorization", "Bearer signed");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return request;
+    }
+
+    @Test
+    void principalComesFromTheClaimsWithoutALookup() throws Exception {
+        MockHttpServletRequest request = filter(token(JwtUtil.TYPE_ACCESS, 7L));
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        AuthenticatedUser principal = (AuthenticatedUser) auth.getPrincipal();
+        assertEquals(7L, principal.getId());
+        assertEquals(Role.ADMIN, principal.getRole());
+        assertTrue(auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+        assertEquals(7L, request.getAttribute(RequestLoggingFilter.USER_ID_ATTRIBUTE));
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void tokensIssuedBeforeAUserCutoffAreIgnored() throws Exception {
+        VerifiedToken verified = token(JwtUtil.TYPE_ACCESS, 7L);
+        when(userRevocationStore.isRevoked(7L, verified.issuedAt())).thenReturn(true);
+
+        filter(verified);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void revokedAndRefreshTokensAreNotCredentials() throws Exception {
+        filter(token(JwtUtil.TYPE_REFRESH, 7L));
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+        when(tokenRevocationStore.isRevoked("jti-1")).thenReturn(true);
+        filter(token(JwtUtil.TYPE_ACCESS, 7L));
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void tokensWithoutAUserIdFallBackToTheDatabase() throws Exception {
+        AuthenticatedUser loaded = new AuthenticatedUser(7L, "reader@example.com", Role.USER, "hash");
+        when(userDetailsService.loadUserByUsername("reader@example.com")).thenReturn(loaded);
+
+        filter(token(JwtUtil.TYPE_ACCESS, null));
+
+        assertEquals(loaded, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+    }
+}
@@ -0,0 +1,106 @@
+package com.project.blog_application.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadYourWritesFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReplicaRoutingDataSource routing;
+    private ReadYourWritesFilter filter;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        HikariDataSource primary = mock(HikariDataSource.class);
+        when(primary.getConnection()).thenReturn(mock(Connection.class));
+        HikariDataSource replica = mock(HikariDataSource.class);
+        when(replica.getPoolName()).thenReturn("replica-1");
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica), meterRegistry, 30, 10_000, 2);
+        filter = new ReadYourWritesFilter(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.unpin();
+    }
+
+    private static MockHttpServletRequest request(String method, Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/posts");
+        if (userId != null) {
+            request.setAttribute(RequestLoggingFilter.USER_ID_ATTRIBUTE, userId);
+        }
+        return request;
+    }
+
+    // Runs a request whose handler takes one read-only connection and answers with the given status
+    private void perform(String method, Long userId, int status) throws ServletException, IOException {
+        filter.doFilter(request(method, userId), new MockHttpServletResponse(), (req, res) -> {
+            try {
+                routing.getConnection();
+            } catch (SQLException e) {
+                throw new ServletException(e);
+            }
+            ((MockHttpServletResponse) res).setStatus(status);
+        });
+    }
+
+    private double routed(String target) {
+        return meterRegistry.counter("datasource_read_routing_total", "target", target).count();
+    }
+
+    @Test
+    void successfulWritePinsTheUsersLaterRequests() throws Exception {
+        perform("POST", 5L, 201);
+        assertEquals(0, routed("primary_sticky"));
+
+        perform("GET", 5L, 200);
+        assertEquals(1, routed("primary_sticky"));
+
+        // Another user's reads are unaffected
+        perform("GET", 6L, 200);
+        assertEquals(1, routed("primary_sticky"));
+    }
+
+    @Test
+    void failedWritesAndReadsOpenNoWindow() throws Exception {
+        perform("PUT", 5L, 400);
+        perform("GET", 5L, 200);
+        perform("DELETE", null, 204);
+
+        assertFalse(routing.pinIfRecentWriter(5L));
+        assertEquals(0, routed("primary_sticky"));
+    }
+
+    @Test
+    void pinIsReleasedWhenTheRequestFails() throws Exception {
+        routing.recordWrite(5L);
+
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(request("GET", 5L),
+                new MockHttpServletResponse(), (req, res) -> {
+                    throw new IllegalStateException("handler failed");
+                }));
+        routing.getConnection();
+
+        assertEquals(0, routed("primary_sticky"));
+        assertEquals(1, routed("primary_fallback"));
+        assertTrue(routing.pinIfRecentWriter(5L));
+    }
+}
@@ -0,0 +1,198 @@
+package com.project.blog_application.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HikariDataSource primary = mock(HikariDataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.unpin();
+    }
+
+    private static final class Replica {
+        private final HikariDataSource dataSource = mock(HikariDataSource.class);
+        private final Connection connection = mock(Connection.class);
+        private final Statement statement = mock(Statement.class);
+
+        private Replica(String name) throws SQLException {
+            when(dataSource.getPoolName()).thenReturn(name);
+            when(dataSource.getConnection()).thenReturn(connection);
+            when(connection.createStatement()).thenReturn(statement);
+        }
+
+        // A plain database that is not replicating reports no status row
+        private Replica notReplicating() throws SQLException {
+            ResultSet status = mock(ResultSet.class);
+            when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(status);
+            return this;
+        }
+
+        // A null lag means the replication threads are stopped
+        private Replica lagging(Long seconds) throws SQLException {
+            ResultSet status = mock(ResultSet.class);
+            when(status.next()).thenReturn(true);
+            when(status.getLong("Seconds_Behind_Source")).thenReturn(seconds != null ? seconds : 0L);
+            when(status.wasNull()).thenReturn(seconds == null);
+            when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(status);
+            return this;
+        }
+    }
+
+    private ReplicaRoutingDataSource routing(Replica... replicas) {
+        List<HikariDataSource> dataSources = Arrays.stream(replicas).map(r -> r.dataSource).toList();
+        return new ReplicaRoutingDataSource(primary, dataSources, meterRegistry, 30, 10_000, 2);
+    }
+
+    private double routed(String target) {
+        return meterRegistry.counter("datasource_read_routing_total", "target", target).count();
+    }
+
+    private double gauge(String name, String replica) {
+        return meterRegistry.get(name).tag("replica", replica).gauge().value();
+    }
+
+    @Test
+    void readsUseThePrimaryUntilAReplicaPassesItsFirstCheck() throws SQLException {
+        Replica replica = new Replica("replica-1").notReplicating();
+        ReplicaRoutingDataSource routing = routing(replica);
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertEquals(1, routed("primary_fallback"));
+
+        routing.checkReplicas();
+
+        assertSame(replica.connection, routing.getConnection());
+        assertEquals(1, routed("replica"));
+        assertEquals(1, gauge("datasource_replica_healthy", "replica-1"));
+    }
+
+    @Test
+    void healthyReplicasAreUsedRoundRobin() throws SQLException {
+        Replica first = new Replica("replica-1").lagging(0L);
+        Replica second = new Replica("replica-2").notReplicating();
+        ReplicaRoutingDataSource routing = routing(first, second);
+        routing.checkReplicas();
+
+        assertSame(first.connection, routing.getConnection());
+        assertSame(second.connection, routing.getConnection());
+        assertSame(first.connection, routing.getConnection());
+        assertEquals(3, routed("replica"));
+    }
+
+    @Test
+    void laggingOrStoppedReplicasAreSkipped() throws SQLException {
+        Replica behind = new Replica("replica-1").lagging(120L);
+        Replica stopped = new Replica("replica-2").lagging(null);
+        ReplicaRoutingDataSource routing = routing(behind, stopped);
+        routing.checkReplicas();
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertEquals(120, gauge("datasource_replica_lag_seconds", "replica-1"));
+        assertEquals(-1, gauge("datasource_replica_lag_seconds", "replica-2"));
+        assertEquals(0, gauge("datasource_replica_healthy", "replica-1"));
+        assertEquals(0, gauge("datasource_replica_healthy", "replica-2"));
+    }
+
+    @Test
+    void replicaThatFailsToConnectIsSkippedUntilItsNextCheck() throws SQLException {
+        Replica replica = new Replica("replica-1").notReplicating();
+        ReplicaRoutingDataSource routing = routing(replica);
+        routing.checkReplicas();
+        when(replica.dataSource.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertSame(primaryConnection, routing.getConnection());
+        // The check plus the one failed read: the second read did not try it again
+        verify(replica.dataSource, times(2)).getConnection();
+
+        doReturn(replica.connection).when(replica.dataSource).getConnection();
+        routing.checkReplicas();
+
+        assertSame(replica.connection, routing.getConnection());
+    }
+
+    @Test
+    void unreadableReplicationStatusFallsBackToAReachabilityCheck() throws SQLException {
+        Replica replica = new Replica("replica-1");
+        when(replica.statement.executeQuery("SHOW REPLICA STATUS")).thenThrow(new SQLException("access denied"));
+        ResultSet ping = mock(ResultSet.class);
+        when(ping.next()).thenReturn(true);
+        when(replica.statement.executeQuery("SELECT 1")).thenReturn(ping);
+        ReplicaRoutingDataSource routing = routing(replica);
+
+        routing.checkReplicas();
+        routing.checkReplicas();
+
+        assertSame(replica.connection, routing.getConnection());
+        verify(replica.statement, times(1)).executeQuery("SHOW REPLICA STATUS");
+        verify(replica.statement, times(2)).executeQuery("SELECT 1");
+    }
+
+    @Test
+    void recentWriterIsPinnedToThePrimary() throws SQLException {
+        Replica replica = new Replica("replica-1").notReplicating();
+        ReplicaRoutingDataSource routing = routing(replica);
+        routing.checkReplicas();
+        routing.recordWrite(5L);
+
+        assertFalse(routing.pinIfRecentWriter(6L));
+        assertFalse(routing.pinIfRecentWriter(null));
+        assertSame(replica.connection, routing.getConnection());
+
+        assertTrue(routing.pinIfRecentWriter(5L));
+        assertSame(primaryConnection, routing.getConnection());
+        assertEquals(1, routed("primary_sticky"));
+
+        ReplicaRoutingDataSource.unpin();
+        assertSame(replica.connection, routing.getConnection());
+    }
+
+    @Test
+    void zeroStickyWindowDisablesPinning() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                List.of(new Replica("replica-1").dataSource), meterRegistry, 30, 0, 2);
+
+        routing.recordWrite(5L);
+
+        assertFalse(routing.pinIfRecentWriter(5L));
+    }
+
+    @Test
+    void perCallCredentialsAreNotSupported() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(new Replica("replica-1"));
+
+        assertThrows(SQLFeatureNotSupportedException.class, () -> routing.getConnection("user", "secret"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.project.blog_application.controllers;
+
+import com.project.blog_application.DTO.BlogPostDTO;
+import com.project.blog_application.entities.BlogPost;
+import com.project.blog_application.entities.Role;
+import com.project.blog_application.entities.User;
+import com.project.blog_application.repository.BlogPostRepository;
+import com.project.blog_application.repository.LikeRepository;
+import com.project.blog_application.security.AuthenticatedUser;
+import com.project.blog_application.services.FileStorageService;
+import com.project.blog_application.services.LikeGraphIndex;
+import com.project.blog_application.services.LikeService;
+import com.project.blog_application.services.LikeWriteBehindBuffer;
+import com.project.blog_application.services.PostEnrichmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LikeControllerTest {
+
+    private static final long OWNER_ID = 1L;
+    private static final long VIEWER_ID = 2L;
+
+    private final LikeService likeService = mock(LikeService.class);
+    private final LikeGraphIndex likeGraphIndex = mock(LikeGraphIndex.class);
+    private LikeController controller;
+
+    @BeforeEach
+    void setUp() {
+        BlogPostRepository blogPostRepository = mock(BlogPostRepository.class);
+        when(blogPostRepository.findCommentCounts(any())).thenReturn(List.of());
+        PostEnrichmentService enrichment = new PostEnrichmentService(mock(LikeRepository.class), blogPostRepository,
+                likeGraphIndex, mock(LikeWriteBehindBuffer.class));
+        controller = new LikeController(likeService, mock(FileStorageService.class), enrichment);
+
+        // The owner liked posts 10 and 11; the viewer only liked 10
+        when(likeGraphIndex.isReady()).thenReturn(true);
+        when(likeGraphIndex.likeCount(anyLong())).thenReturn(1L);
+        when(likeGraphIndex.hasLiked(OWNER_ID, 10L)).thenReturn(true);
+        when(likeGraphIndex.hasLiked(OWNER_ID, 11L)).thenReturn(true);
+        when(likeGraphIndex.hasLiked(VIEWER_ID, 10L)).thenReturn(true);
+        when(likeService.getLikedBlogPosts(OWNER_ID)).thenReturn(List.of(post(10L), post(11L)));
+    }
+
+    private static BlogPost post(long id) {
+        User author = new User();
+        author.setId(3L);
+        author.setUsername("author");
+        BlogPost post = new BlogPost();
+        post.setId(id);
+        post.setTitle("post " + id);
+        post.setUser(author);
+        return post;
+    }
+
+    @Test
+    void likedFlagsOnAnotherUsersLikedPostsAreTheViewers() {
+        AuthenticatedUser viewer = new AuthenticatedUser(VIEWER_ID, "viewer@example.com", Role.USER, null);
+
+        List<BlogPostDTO> posts = controller.getLikedPosts(OWNER_ID, viewer).getBody();
+
+        assertEquals(List.of(10L, 11L), posts.stream().map(BlogPostDTO::getId).toList());
+        assertTrue(posts.get(0).isLikedByViewer());
+        assertFalse(posts.get(1).isLikedByViewer());
+    }
+
+    @Test
+    void ownerSeesTheirOwnLikes() {
+        AuthenticatedUser owner = new AuthenticatedUser(OWNER_ID, "owner@example.com", Role.USER, null);
+
+        List<BlogPostDTO> posts = controller.getLikedPosts(OWNER_ID, owner).getBody();
+
+        assertTrue(posts.stream().allMatch(BlogPostDTO::isLikedByViewer));
+    }
+
+    @Test
+    void anonymousViewerHasLikedNothing() {
+        List<BlogPostDTO> posts = controller.getLikedPosts(OWNER_ID, null).getBody();
+
+        assertTrue(posts.stream().noneMatch(BlogPostDTO::isLikedByViewer));
+        assertEquals(1L, posts.get(0).getLikeCount());
+    }
+}
@@ -0,0 +1,78 @@
+package com.project.blog_application.controllers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UploadFileControllerTest {
+
+    private static final long LENGTH = 1000;
+
+    @Test
+    void parsesClosedRange() {
+        UploadFileController.ByteRange range = UploadFileController.parseRange("bytes=100-199", LENGTH);
+        assertEquals(100, range.start());
+        assertEquals(199, range.end());
+        assertEquals(100, range.length());
+    }
+
+    @Test
+    void openEndedRangeRunsToTheLastByte() {
+        UploadFileController.ByteRange range = UploadFileController.parseRange("bytes=900-", LENGTH);
+        assertEquals(900, range.start());
+        assertEquals(999, range.end());
+    }
+
+    @Test
+    void endPastTheFileIsClamped() {
+        UploadFileController.ByteRange range = UploadFileController.parseRange("bytes=500-5000", LENGTH);
+        assertEquals(500, range.start());
+        assertEquals(999, range.end());
+    }
+
+    @Test
+    void suffixRangeSelectsTheLastBytes() {
+        UploadFileController.ByteRange range = UploadFileController.parseRange("bytes=-100", LENGTH);
+        assertEquals(900, range.start());
+        assertEquals(999, range.end());
+
+        UploadFileController.ByteRange whole = UploadFileController.parseRange("bytes=-5000", LENGTH);
+        assertEquals(0, whole.start());
+        assertEquals(999, whole.end());
+    }
+
+    @Test
+    void multipleRangesAndOtherUnitsFallBackToTheWholeFile() {
+        UploadFileController.ByteRange multi = UploadFileController.parseRange("bytes=0-9,20-29", LENGTH);
+        assertEquals(0, multi.start());
+        assertEquals(999, multi.end());
+
+        UploadFileController.ByteRange items = UploadFileController.parseRange("items=0-9", LENGTH);
+        assertEquals(0, items.start());
+        assertEquals(999, items.end());
+    }
+
+    @Test
+    void unsatisfiableOrMalformedRangesAreRejected() {
+        assertNull(UploadFileController.parseRange("bytes=1000-", LENGTH));
+        assertNull(UploadFileController.parseRange("bytes=200-100", LENGTH));
+        assertNull(UploadFileController.parseRange("bytes=-0", LENGTH));
+        assertNull(UploadFileController.parseRange("bytes=abc-", LENGTH));
+        assertNull(UploadFileController.parseRange("bytes=100", LENGTH));
+        assertNull(UploadFileController.parseRange("bytes=0-", 0));
+    }
+
+    @Test
+    void ifRangeUsesStrongComparison() {
+        assertTrue(UploadFileController.ifRangeMatches("\"abc.png\"", "\"abc.png\""));
+        assertFalse(UploadFileController.ifRangeMatches("\"other.png\"", "\"abc.png\""));
+        // Weak validators never match, on either side
+        assertFalse(UploadFileController.ifRangeMatches("W/\"abc.png\"", "\"abc.png\""));
+        assertFalse(UploadFileController.ifRangeMatches("W/\"10-1f\"", "W/\"10-1f\""));
+        assertFalse(UploadFileController.ifRangeMatches("\"10-1f\"", "W/\"10-1f\""));
+        assertFalse(UploadFileController.ifRangeMatches("Tue, 15 Nov 1994 08:12:31 GMT", "\"abc.png\""));
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.blog_application.security;
+
+import com.project.blog_application.entities.Role;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+
+    private static JwtUtil jwtUtil(int cacheEntries) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "SECRET_KEY", "test-secret-test-secret-test-secret-0123456789");
+        ReflectionTestUtils.setField(jwtUtil, "EXPIRATION_TIME", 60_000L);
+        ReflectionTestUtils.setField(jwtUtil, "REFRESH_EXPIRATION_TIME", 120_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheMaxEntries", cacheEntries);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    private static Map<?, ?> cache(JwtUtil jwtUtil) {
+        return (Map<?, ?>) ReflectionTestUtils.getField(jwtUtil, "verifiedCache");
+    }
+
+    @Test
+    void verifiesClaimsAndAnswersRepeatsFromTheCache() {
+        JwtUtil jwtUtil = jwtUtil(100);
+        String token = jwtUtil.generateToken(7L, "reader@example.com", Role.USER);
+
+        VerifiedToken first = jwtUtil.verify(token);
+        assertEquals(7L, first.userId());
+        assertEquals("reader@example.com", first.email());
+        assertEquals("ROLE_USER", first.role());
+        assertFalse(first.isRefreshToken());
+
+        assertSame(first, jwtUtil.verify(token));
+        assertEquals(1, cache(jwtUtil).size());
+    }
+
+    @Test
+    void disabledCacheVerifiesEveryTime() {
+        JwtUtil jwtUtil = jwtUtil(0);
+        String token = jwtUtil.generateRefreshToken(7L, "reader@example.com", Role.USER);
+
+        VerifiedToken first = jwtUtil.verify(token);
+        assertTrue(first.isRefreshToken());
+        assertNotSame(first, jwtUtil.verify(token));
+        assertTrue(cache(jwtUtil).isEmpty());
+    }
+
+    @Test
+    void tamperedTokenIsRejectedEvenWhenTheOriginalIsCached() {
+        JwtUtil jwtUtil = jwtUtil(100);
+        String token = jwtUtil.generateToken(7L, "reader@example.com", Role.USER);
+        jwtUtil.verify(token);
+
+        // Flip a character inside the signature (the last one may only carry padding bits)
+        int at = token.length() - 10;
+        char flipped = token.charAt(at) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, at) + flipped + token.substring(at + 1);
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+        assertFalse(jwtUtil.validateToken(tampered, "reader@example.com"));
+    }
+
+    @Test
+    void cacheStaysWithinItsBound() {
+        JwtUtil jwtUtil = jwtUtil(10);
+        for (int i = 0; i < 25; i++) {
+            String token = jwtUtil.generateToken((long) i, "user" + i + "@example.com", Role.USER);
+            assertEquals("user" + i + "@example.com", jwtUtil.verify(token).email());
+        }
+
+        assertTrue(cache(jwtUtil).size() <= 10);
+    }
+}
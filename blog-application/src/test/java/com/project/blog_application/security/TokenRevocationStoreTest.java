@@ -0,0 +1,71 @@
+package com.project.blog_application.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationStoreTest {
+
+    @SuppressWarnings("unchecked")
+    private final ZSetOperations<String, String> zSet = mock(ZSetOperations.class);
+    private TokenRevocationStore store;
+
+    @BeforeEach
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+        store = new TokenRevocationStore(redisTemplate);
+    }
+
+    private static Instant inAnHour() {
+        return Instant.now().plusSeconds(3600);
+    }
+
+    @Test
+    void onlyTheFirstRevokeReportsIt() {
+        when(zSet.addIfAbsent(eq("auth:revoked-tokens"), eq("jti-1"), anyDouble())).thenReturn(true, false);
+
+        assertTrue(store.revoke("jti-1", inAnHour()));
+        assertFalse(store.revoke("jti-1", inAnHour()));
+        assertTrue(store.isRevoked("jti-1"));
+        assertFalse(store.isRevoked("jti-2"));
+    }
+
+    @Test
+    void revokedOnAnotherNodeFirstIsNotReportedButStillRecorded() {
+        when(zSet.addIfAbsent(anyString(), eq("jti-1"), anyDouble())).thenReturn(false);
+
+        assertFalse(store.revoke("jti-1", inAnHour()));
+        assertTrue(store.isRevoked("jti-1"));
+    }
+
+    @Test
+    void withoutRedisTheLocalCopyDecides() {
+        when(zSet.addIfAbsent(anyString(), anyString(), anyDouble()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertTrue(store.revoke("jti-1", inAnHour()));
+        assertFalse(store.revoke("jti-1", inAnHour()));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void expiredOrAnonymousTokensNeedNoRevocation() {
+        assertFalse(store.revoke("jti-1", Instant.now().minusSeconds(1)));
+        assertFalse(store.revoke(null, inAnHour()));
+        assertEquals(0, store.size());
+    }
+}
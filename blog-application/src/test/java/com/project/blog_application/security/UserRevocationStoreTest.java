@@ -0,0 +1,58 @@
+package com.project.blog_application.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserRevocationStoreTest {
+
+    @SuppressWarnings("unchecked")
+    private final HashOperations<String, Object, Object> hash = mock(HashOperations.class);
+    private UserRevocationStore store;
+
+    @BeforeEach
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hash);
+        // Tokens live at most an hour
+        store = new UserRevocationStore(redisTemplate, 60_000L, 3_600_000L);
+    }
+
+    @Test
+    void revokeAllRejectsOnlyTokensIssuedBeforeTheCutoff() {
+        Instant now = Instant.now();
+        store.revokeAll(7L);
+
+        assertTrue(store.isRevoked(7L, now.minusSeconds(10)));
+        assertFalse(store.isRevoked(7L, now.plusSeconds(10)));
+        assertFalse(store.isRevoked(8L, now.minusSeconds(10)));
+        verify(hash).put(eq("auth:user-tokens-revoked-before"), eq("7"), anyString());
+    }
+
+    @Test
+    void refreshPullsCutoffsFromOtherNodesAndDropsExpiredOnes() {
+        long now = Instant.now().getEpochSecond();
+        when(hash.entries("auth:user-tokens-revoked-before")).thenReturn(Map.of(
+                "7", Long.toString(now),
+                "8", Long.toString(now - 7200)));
+
+        store.refresh();
+
+        assertTrue(store.isRevoked(7L, Instant.ofEpochSecond(now - 10)));
+        // Every token issued before that cut-off has expired by now
+        assertFalse(store.isRevoked(8L, Instant.ofEpochSecond(now - 7210)));
+        verify(hash).delete("auth:user-tokens-revoked-before", "8");
+    }
+}
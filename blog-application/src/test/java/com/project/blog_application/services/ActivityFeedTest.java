@@ -0,0 +1,149 @@
+package com.project.blog_application.services;
+
+import com.project.blog_application.DTO.RecentActivityDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActivityFeedTest {
+
+    // Redis sharing off: the feed is a plain in-memory ring buffer
+    private static ActivityFeed feed(int capacity) {
+        return new ActivityFeed(null, capacity, false, 0);
+    }
+
+    private static RecentActivityDTO event(String description) {
+        return new RecentActivityDTO("Test", description, LocalDateTime.now());
+    }
+
+    private static RecentActivityDTO event(String description, LocalDateTime at) {
+        return new RecentActivityDTO("Test", description, at);
+    }
+
+    private static List<String> descriptions(List<RecentActivityDTO> activities) {
+        return activities.stream().map(RecentActivityDTO::getDescription).toList();
+    }
+
+    @Test
+    void latestIsNewestFirstAndLimited() {
+        ActivityFeed feed = feed(10);
+        feed.seed(List.of(event("a"), event("b"), event("c")));
+
+        assertTrue(feed.isSeeded());
+        assertEquals(List.of("c", "b", "a"), descriptions(feed.latest(10)));
+        assertEquals(List.of("c", "b"), descriptions(feed.latest(2)));
+    }
+
+    @Test
+    void wrapsAroundKeepingOnlyTheNewestCapacityEvents() {
+        ActivityFeed feed = feed(3);
+        feed.seed(List.of(event("a"), event("b"), event("c"), event("d"), event("e")));
+
+        assertEquals(List.of("e", "d", "c"), descriptions(feed.latest(10)));
+    }
+
+    @Test
+    void seedKeepsEventsRecordedBeforeItAsTheNewest() {
+        LocalDateTime queried = LocalDateTime.now().minusSeconds(1);
+        ActivityFeed feed = feed(10);
+        // Outside a transaction record() appends immediately
+        feed.record(event("live"));
+        feed.seed(List.of(event("a", queried.minusSeconds(1)), event("b", queried)));
+
+        assertEquals(List.of("live", "b", "a"), descriptions(feed.latest(10)));
+    }
+
+    @Test
+    void seedDropsLiveEventsTheSeedRowsAlreadyContain() {
+        LocalDateTime now = LocalDateTime.now();
+        ActivityFeed feed = feed(10);
+        // Committed before the seed query ran, so it comes back as row "b" as well
+        feed.record(event("b", now.minusSeconds(1)));
+        feed.record(event("c", now.plusSeconds(1)));
+        feed.seed(List.of(event("a", now.minusSeconds(2)), event("b", now.minusSeconds(1)), event("x", now)));
+
+        assertEquals(List.of("c", "x", "b", "a"), descriptions(feed.latest(10)));
+    }
+
+    @Test
+    void eventsAppendedDuringSeedAreNeitherLostNorDuplicated() throws InterruptedException {
+        int writers = 4;
+        int perWriter = 500;
+        ActivityFeed feed = feed(10_000);
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+        List<RecentActivityDTO> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rows.add(event("row" + i, LocalDateTime.now().minusHours(1)));
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perWriter; i++) {
+                    feed.record(event(writer + "-" + i, later));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (int i = 0; i < 20; i++) {
+            feed.seed(rows);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<String> all = descriptions(feed.latest(10_000));
+        assertEquals(writers * perWriter + rows.size(), all.size());
+        assertEquals(all.size(), new HashSet<>(all).size());
+    }
+
+    @Test
+    void sinceReturnsOnlyNewerEventsOldestFirst() {
+        ActivityFeed feed = feed(10);
+        feed.seed(List.of(event("a")));
+        long head = feed.headSequence();
+        feed.record(event("b"));
+        feed.record(event("c"));
+
+        List<RecentActivityDTO> into = new ArrayList<>();
+        long next = feed.since(head, into);
+
+        assertEquals(List.of("b", "c"), descriptions(into));
+        assertEquals(feed.headSequence(), next);
+
+        List<RecentActivityDTO> none = new ArrayList<>();
+        assertEquals(next, feed.since(next, none));
+        assertTrue(none.isEmpty());
+    }
+
+    @Test
+    void sinceSkipsEventsAlreadyOverwritten() {
+        ActivityFeed feed = feed(2);
+        feed.seed(List.of());
+        long head = feed.headSequence();
+        feed.record(event("a"));
+        feed.record(event("b"));
+        feed.record(event("c"));
+
+        List<RecentActivityDTO> into = new ArrayList<>();
+        feed.since(head, into);
+
+        assertEquals(List.of("b", "c"), descriptions(into));
+    }
+}
@@ -0,0 +1,93 @@
+package com.project.blog_application.services;
+
+import com.project.blog_application.DTO.AnalyticsSeriesDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class AnalyticsRollupServiceTest {
+
+    // The rollup table is mocked away (no rows), so every count comes from unflushed increments
+    private static AnalyticsRollupService service(int maxBuckets) {
+        return new AnalyticsRollupService(mock(JdbcTemplate.class), mock(PlatformTransactionManager.class),
+                true, 168, 300_000, maxBuckets);
+    }
+
+    @Test
+    void hourlySeriesWidensToWholeBucketsAndFillsGaps() {
+        AnalyticsRollupService service = service(2000);
+        LocalDateTime from = LocalDateTime.of(2024, 3, 5, 10, 30);
+        LocalDateTime to = LocalDateTime.of(2024, 3, 5, 13, 15);
+
+        AnalyticsSeriesDTO series = service.series(AnalyticsRollupService.Metric.POSTS,
+                AnalyticsRollupService.Granularity.HOUR, from, to);
+
+        assertEquals(LocalDateTime.of(2024, 3, 5, 10, 0), series.getFrom());
+        assertEquals(LocalDateTime.of(2024, 3, 5, 14, 0), series.getTo());
+        assertEquals(4, series.getPoints().size());
+        assertEquals(LocalDateTime.of(2024, 3, 5, 13, 0), series.getPoints().get(3).getBucketStart());
+        assertEquals(0, series.getTotal());
+    }
+
+    @Test
+    void bucketBoundaryIsNotWidened() {
+        AnalyticsSeriesDTO series = service(2000).series(AnalyticsRollupService.Metric.POSTS,
+                AnalyticsRollupService.Granularity.DAY,
+                LocalDateTime.of(2024, 3, 5, 0, 0), LocalDateTime.of(2024, 3, 8, 0, 0));
+
+        assertEquals(3, series.getPoints().size());
+        assertEquals(LocalDateTime.of(2024, 3, 8, 0, 0), series.getTo());
+    }
+
+    @Test
+    void weeklyBucketsStartOnMonday() {
+        // 2024-03-06 is a Wednesday
+        AnalyticsSeriesDTO series = service(2000).series(AnalyticsRollupService.Metric.LIKES,
+                AnalyticsRollupService.Granularity.WEEK,
+                LocalDateTime.of(2024, 3, 6, 12, 0), LocalDateTime.of(2024, 3, 20, 9, 0));
+
+        assertEquals(LocalDateTime.of(2024, 3, 4, 0, 0), series.getFrom());
+        assertEquals(DayOfWeek.MONDAY, series.getTo().getDayOfWeek());
+        assertEquals(3, series.getPoints().size());
+        series.getPoints().forEach(point -> assertEquals(DayOfWeek.MONDAY, point.getBucketStart().getDayOfWeek()));
+    }
+
+    @Test
+    void unflushedIncrementsLandInTheCurrentBucketOfTheirMetric() {
+        AnalyticsRollupService service = service(2000);
+        // Outside a transaction record() counts immediately
+        service.record(AnalyticsRollupService.Metric.COMMENTS);
+        service.record(AnalyticsRollupService.Metric.COMMENTS);
+        service.record(AnalyticsRollupService.Metric.POSTS);
+
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        AnalyticsSeriesDTO hourly = service.series(AnalyticsRollupService.Metric.COMMENTS,
+                AnalyticsRollupService.Granularity.HOUR, hour.minusHours(3), hour.plusHours(1));
+        assertEquals(2, hourly.getTotal());
+        assertEquals(hour, hourly.getPoints().get(hourly.getPoints().size() - 1).getBucketStart());
+        assertEquals(2, hourly.getPoints().get(hourly.getPoints().size() - 1).getCount());
+
+        LocalDateTime day = hour.truncatedTo(ChronoUnit.DAYS);
+        AnalyticsSeriesDTO daily = service.series(AnalyticsRollupService.Metric.COMMENTS,
+                AnalyticsRollupService.Granularity.DAY, day.minusDays(2), day.plusDays(1));
+        assertEquals(2, daily.getTotal());
+        assertEquals(2, daily.getPoints().get(daily.getPoints().size() - 1).getCount());
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedRanges() {
+        LocalDateTime at = LocalDateTime.of(2024, 3, 5, 10, 0);
+        assertThrows(IllegalArgumentException.class, () -> service(2000).series(AnalyticsRollupService.Metric.POSTS,
+                AnalyticsRollupService.Granularity.HOUR, at, at));
+        assertThrows(IllegalArgumentException.class, () -> service(24).series(AnalyticsRollupService.Metric.POSTS,
+                AnalyticsRollupService.Granularity.HOUR, at, at.plusHours(25)));
+    }
+}
@@ -0,0 +1,144 @@
+package com.project.blog_application.services;
+
+import com.project.blog_application.DTO.LoginResponse;
+import com.project.blog_application.entities.Role;
+import com.project.blog_application.entities.User;
+import com.project.blog_application.exceptions.InvalidCredentialsException;
+import com.project.blog_application.repository.UserRepository;
+import com.project.blog_application.security.JwtUtil;
+import com.project.blog_application.security.TokenRevocationStore;
+import com.project.blog_application.security.UserRevocationStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceTest {
+
+    private static final long USER_ID = 7L;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserRevocationStore userRevocationStore = mock(UserRevocationStore.class);
+    private JwtUtil jwtUtil;
+    private AuthService authService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "SECRET_KEY", "test-secret-test-secret-test-secret-0123456789");
+        ReflectionTestUtils.setField(jwtUtil, "EXPIRATION_TIME", 60_000L);
+        ReflectionTestUtils.setField(jwtUtil, "REFRESH_EXPIRATION_TIME", 120_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheMaxEntries", 100);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+
+        // Redis accepts every id once, like ZADD NX
+        ZSetOperations<String, String> zSet = mock(ZSetOperations.class);
+        List<String> added = new ArrayList<>();
+        when(zSet.addIfAbsent(anyString(), anyString(), anyDouble())).thenAnswer(invocation -> {
+            synchronized (added) {
+                return !added.contains(invocation.getArgument(1, String.class))
+                        && added.add(invocation.getArgument(1, String.class));
+            }
+        });
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+
+        authService = new AuthService(userRepository, mock(PasswordHashingService.class), jwtUtil,
+                new TokenRevocationStore(redisTemplate), userRevocationStore, mock(PlatformCounters.class),
+                mock(ActivityFeed.class), mock(AnalyticsRollupService.class));
+
+        User user = new User();
+        user.setId(USER_ID);
+        user.setEmail("reader@example.com");
+        user.setRole(Role.USER);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+    }
+
+    private String refreshToken() {
+        return jwtUtil.generateRefreshToken(USER_ID, "reader@example.com", Role.USER);
+    }
+
+    @Test
+    void refreshRotatesTheToken() {
+        String refreshToken = refreshToken();
+
+        LoginResponse response = authService.refresh(refreshToken);
+
+        assertNotEquals(refreshToken, response.getRefreshToken());
+        assertEquals(USER_ID, jwtUtil.verify(response.getToken()).userId());
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesEverything() {
+        String refreshToken = refreshToken();
+        authService.refresh(refreshToken);
+
+        assertThrows(InvalidCredentialsException.class, () -> authService.refresh(refreshToken));
+        verify(userRevocationStore).revokeAll(USER_ID);
+    }
+
+    @Test
+    void accessTokensCannotRefresh() {
+        String accessToken = jwtUtil.generateToken(USER_ID, "reader@example.com", Role.USER);
+
+        assertThrows(InvalidCredentialsException.class, () -> authService.refresh(accessToken));
+        verify(userRevocationStore, never()).revokeAll(anyLong());
+    }
+
+    @Test
+    void onlyOneOfTwoConcurrentRefreshesWins() throws Exception {
+        String refreshToken = refreshToken();
+        // Both requests pass the revoked check before either rotates the token
+        CyclicBarrier bothChecked = new CyclicBarrier(2);
+        User user = userRepository.findById(USER_ID).orElseThrow();
+        when(userRepository.findById(USER_ID)).thenAnswer(invocation -> {
+            bothChecked.await();
+            return Optional.of(user);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<LoginResponse>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                results.add(executor.submit(() -> authService.refresh(refreshToken)));
+            }
+            int succeeded = 0;
+            int rejected = 0;
+            for (Future<LoginResponse> result : results) {
+                try {
+                    result.get();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertEquals(InvalidCredentialsException.class, e.getCause().getClass());
+                    rejected++;
+                }
+            }
+            assertEquals(1, succeeded);
+            assertEquals(1, rejected);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.project.blog_application.services;
+
+import com.project.blog_application.DTO.CommentNodeDTO;
+import com.project.blog_application.DTO.CommentNodeView;
+import com.project.blog_application.DTO.CommentThreadDTO;
+import com.project.blog_application.entities.BlogPost;
+import com.project.blog_application.entities.Comment;
+import com.project.blog_application.entities.User;
+import com.project.blog_application.repository.BlogPostRepository;
+import com.project.blog_application.repository.CommentRepository;
+import com.project.blog_application.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CommentServiceTest {
+
+    private static final SpelAwareProxyProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    // A row as the path-ordered thread queries return it
+    private static CommentNodeView row(long id, Long parentId, String path) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("id", id);
+        values.put("parentId", parentId);
+        values.put("path", path);
+        values.put("depth", path.length() / 13 - 1);
+        values.put("content", "comment " + id);
+        values.put("userId", 1L);
+        values.put("blogPostId", 1L);
+        return PROJECTIONS.createProjection(CommentNodeView.class, values);
+    }
+
+    private static String path(long... ids) {
+        StringBuilder path = new StringBuilder();
+        for (long id : ids) {
+            path.append(String.format("%012d/", id));
+        }
+        return path.toString();
+    }
+
+    private static List<Long> ids(List<CommentNodeDTO> nodes) {
+        return nodes.stream().map(CommentNodeDTO::getId).toList();
+    }
+
+    @Test
+    void buildsTheTreeFromPathOrderedRows() {
+        List<CommentNodeView> rows = List.of(
+                row(1, null, path(1)),
+                row(2, 1L, path(1, 2)),
+                row(4, 2L, path(1, 2, 4)),
+                row(3, 1L, path(1, 3)));
+
+        List<CommentNodeDTO> roots = CommentService.assembleTree(new ArrayList<>(), rows);
+
+        assertEquals(List.of(1L), ids(roots));
+        CommentNodeDTO root = roots.get(0);
+        assertEquals(List.of(2L, 3L), ids(root.getReplies()));
+        assertEquals(List.of(4L), ids(root.getReplies().get(0).getReplies()));
+        assertEquals(2, root.getReplies().get(0).getReplies().get(0).getDepth());
+        assertTrue(root.getReplies().get(1).getReplies().isEmpty());
+    }
+
+    @Test
+    void subtreeLoadStartsAtTheRequestedReply() {
+        // Loading the thread of comment 2: its own parent is not part of the result
+        List<CommentNodeView> rows = List.of(
+                row(2, 1L, path(1, 2)),
+                row(4, 2L, path(1, 2, 4)));
+
+        List<CommentNodeDTO> roots = CommentService.assembleTree(new ArrayList<>(), rows);
+
+        assertEquals(List.of(2L), ids(roots));
+        assertEquals(List.of(4L), ids(roots.get(0).getReplies()));
+    }
+
+    @Test
+    void dropsRowsWhoseParentWasCutOff() {
+        // Node limit reached inside a branch: 5's parent (3) is missing from the window
+        List<CommentNodeView> rows = List.of(
+                row(1, null, path(1)),
+                row(2, 1L, path(1, 2)),
+                row(5, 3L, path(1, 3, 5)));
+
+        List<CommentNodeDTO> roots = CommentService.assembleTree(new ArrayList<>(), rows);
+
+        assertEquals(List.of(1L), ids(roots));
+        assertEquals(List.of(2L), ids(roots.get(0).getReplies()));
+        assertTrue(roots.get(0).getReplies().get(0).getReplies().isEmpty());
+    }
+
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+
+    private final BlogPostRepository blogPostRepository = mock(BlogPostRepository.class);
+
+    private CommentService service() {
+        return new CommentService(commentRepository, mock(UserRepository.class), blogPostRepository,
+                mock(PlatformCounters.class), mock(ActivityFeed.class), mock(AnalyticsRollupService.class));
+    }
+
+    // Comment 1 with replies 2..replies+1, as findSubtree returns them
+    private List<CommentNodeView> threadRows(int replies) {
+        Comment root = new Comment();
+        root.setId(1L);
+        root.setRootId(1L);
+        root.setPath(path(1));
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(root));
+
+        List<CommentNodeView> rows = new ArrayList<>();
+        rows.add(row(1, null, path(1)));
+        for (long id = 2; id <= replies + 1; id++) {
+            rows.add(row(id, 1L, path(1, id)));
+        }
+        return rows;
+    }
+
+    @Test
+    void threadWithinTheLimitIsComplete() {
+        List<CommentNodeView> rows = threadRows(3);
+        when(commentRepository.findSubtree(1L, path(1), CommentService.MAX_THREAD_NODES + 1)).thenReturn(rows);
+
+        CommentThreadDTO thread = service().getThread(1L).orElseThrow();
+
+        assertFalse(thread.isTruncated());
+        assertEquals(3, thread.getRoot().getReplies().size());
+    }
+
+    @Test
+    void threadPastTheLimitIsFlaggedTruncated() {
+        List<CommentNodeView> rows = threadRows(CommentService.MAX_THREAD_NODES);
+        when(commentRepository.findSubtree(1L, path(1), CommentService.MAX_THREAD_NODES + 1)).thenReturn(rows);
+
+        CommentThreadDTO thread = service().getThread(1L).orElseThrow();
+
+        assertTrue(thread.isTruncated());
+        assertEquals(CommentService.MAX_THREAD_NODES - 1, thread.getRoot().getReplies().size());
+    }
+
+    @Test
+    void commentsOfSoftDeletedPostsAreNotFound() {
+        User author = new User();
+        author.setId(5L);
+        BlogPost post = new BlogPost();
+        post.setId(9L);
+        Comment comment = new Comment();
+        comment.setId(1L);
+        comment.setUser(author);
+        comment.setBlogPost(post);
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(comment));
+
+        when(blogPostRepository.existsById(9L)).thenReturn(true);
+        assertEquals(1L, service().getCommentById(1L).orElseThrow().getId());
+
+        // Soft-deleted: @SQLRestriction hides the post from existsById
+        when(blogPostRepository.existsById(9L)).thenReturn(false);
+        assertTrue(service().getCommentById(1L).isEmpty());
+    }
+}
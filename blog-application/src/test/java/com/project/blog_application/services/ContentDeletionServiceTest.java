@@ -0,0 +1,108 @@
+package com.project.blog_application.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The statements are MySQL-specific (DELETE ... LIMIT, GREATEST), so they run against MySQL itself
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(ContentDeletionService.class)
+@TestPropertySource(properties = "deletion.chunk-size=2")
+class ContentDeletionServiceTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private ContentDeletionService contentDeletionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SqlFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new SqlFixtures(jdbcTemplate);
+    }
+
+    @Test
+    void deletePostsRemovesLikesAndCommentsAcrossChunks() {
+        for (long user = 1; user <= 5; user++) {
+            fixtures.user(user, null);
+        }
+        fixtures.post(1, 1, null, 0);
+        fixtures.post(2, 1, null, 3);
+        fixtures.post(3, 1, null, 1);
+        for (long user = 1; user <= 5; user++) {
+            fixtures.like(user, user, 1);
+        }
+        String root = fixtures.comment(10, 2, 2);
+        fixtures.reply(11, 2, 3, 10, root);
+        fixtures.comment(12, 2, 4);
+        fixtures.comment(13, 3, 5);
+        fixtures.like(6, 2, 3);
+
+        ContentDeletionService.PostRemoval removal = contentDeletionService.deletePosts(List.of(1L, 2L));
+
+        assertEquals(3, removal.comments());
+        assertEquals(5, removal.likes());
+        assertEquals(0, fixtures.count("blog_posts", "id IN (1, 2)"));
+        assertEquals(1, fixtures.count("blog_posts"));
+        assertEquals(1, fixtures.count("comments"));
+        assertEquals(1, fixtures.count("likes"));
+    }
+
+    @Test
+    void deleteUserRemovesTheirContentAndTheRepliesUnderTheirComments() {
+        fixtures.user(1, "/uploads/avatar.png");
+        fixtures.user(2, null);
+        // User 1's live post with a comment from user 2
+        fixtures.post(10, 1, "/uploads/live.png", 1);
+        fixtures.comment(100, 10, 2);
+        // User 1's soft-deleted post, still awaiting purge
+        fixtures.softDeletedPost(11, 1, "/uploads/deleted.png", LocalDateTime.now());
+        fixtures.comment(110, 11, 2);
+        // User 2's post: user 1's comment with a reply from user 2, and a thread of user 2's own
+        fixtures.post(20, 2, null, 3);
+        String ownComment = fixtures.comment(200, 20, 1);
+        fixtures.reply(201, 20, 2, 200, ownComment);
+        fixtures.comment(202, 20, 2);
+        fixtures.like(1, 1, 20);
+        // User 2's soft-deleted post with a comment by user 1: purged, but no longer visible
+        fixtures.softDeletedPost(21, 2, null, LocalDateTime.now());
+        fixtures.comment(210, 21, 1);
+
+        ContentDeletionService.UserRemoval removal = contentDeletionService.deleteUser(1);
+
+        assertEquals(List.of(10L), removal.postIds());
+        assertTrue(removal.files().containsAll(List.of("/uploads/live.png", "/uploads/deleted.png", "/uploads/avatar.png")));
+        // 100 on the live post, 200 and its reply 201; 110 and 210 were already hidden
+        assertEquals(3, removal.comments());
+
+        assertEquals(0, fixtures.count("users", "id = 1"));
+        assertEquals(0, fixtures.count("blog_posts", "user_id = 1"));
+        assertEquals(0, fixtures.count("likes"));
+        assertEquals(List.of(202L), jdbcTemplate.queryForList("SELECT id FROM comments ORDER BY id", Long.class));
+        assertEquals(1, fixtures.commentCount(20));
+        assertEquals(0, fixtures.commentCount(21));
+    }
+}
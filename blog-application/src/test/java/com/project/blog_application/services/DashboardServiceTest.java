@@ -0,0 +1,107 @@
+package com.project.blog_application.services;
+
+import com.project.blog_application.DTO.DashboardStatsDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardServiceTest {
+
+    private final AdminStatsService adminStatsService = mock(AdminStatsService.class);
+    private final ActivityService activityService = mock(ActivityService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private DashboardService service;
+
+    @BeforeEach
+    void setUp() {
+        // Sources still on the database, so the dashboard fans out
+        service = new DashboardService(adminStatsService, activityService, registry, true, 4, 8, 100);
+        when(adminStatsService.getUserCount()).thenReturn(3L);
+        when(adminStatsService.getPostCount()).thenReturn(5L);
+        when(adminStatsService.getCommentCount()).thenReturn(8L);
+        when(activityService.getRecentActivities()).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void inMemorySourcesAreReadDirectly() {
+        when(adminStatsService.isServedFromMemory()).thenReturn(true);
+        when(activityService.isServedFromMemory()).thenReturn(true);
+
+        DashboardStatsDTO stats = service.getDashboardStats();
+
+        assertEquals(3, stats.getUserCount());
+        assertEquals(8, stats.getCommentCount());
+        assertFalse(stats.isPartial());
+    }
+
+    @Test
+    void fanOutCollectsEverySource() {
+        DashboardStatsDTO stats = service.getDashboardStats();
+
+        assertEquals(3, stats.getUserCount());
+        assertEquals(5, stats.getPostCount());
+        assertEquals(8, stats.getCommentCount());
+        assertFalse(stats.isPartial());
+    }
+
+    @Test
+    void slowSourceFallsBackToItsLastGoodValue() {
+        service.getDashboardStats();
+        when(adminStatsService.getPostCount()).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return 6L;
+        });
+
+        long started = System.nanoTime();
+        DashboardStatsDTO stats = service.getDashboardStats();
+
+        assertTrue((System.nanoTime() - started) / 1_000_000 < 900);
+        assertEquals(5, stats.getPostCount());
+        assertTrue(stats.isPartial());
+        assertEquals(1, registry.get("dashboard_source_fallback_total").tag("source", "posts").counter().count());
+    }
+
+    @Test
+    void failingSourceFallsBackToItsLastGoodValue() {
+        service.getDashboardStats();
+        when(adminStatsService.getCommentCount()).thenThrow(new QueryTimeoutException("timeout"));
+
+        DashboardStatsDTO stats = service.getDashboardStats();
+
+        assertEquals(8, stats.getCommentCount());
+        assertTrue(stats.isPartial());
+    }
+
+    @Test
+    void coldSourceIsWaitedForRatherThanReportedAsZero() {
+        AtomicBoolean first = new AtomicBoolean(true);
+        when(adminStatsService.getUserCount()).thenAnswer(invocation -> {
+            // Only the pooled query is slow; the caller's retry answers
+            if (first.getAndSet(false)) {
+                Thread.sleep(1000);
+            }
+            return 3L;
+        });
+
+        DashboardStatsDTO stats = service.getDashboardStats();
+
+        assertEquals(3, stats.getUserCount());
+        assertFalse(stats.isPartial());
+    }
+}
@@ -0,0 +1,113 @@
+package com.project.blog_application.services;
+
+import com.project.blog_application.DTO.DashboardStatsDTO;
+import com.project.blog_application.controllers.DashboardController;
+import com.project.blog_application.exceptions.ServiceBusyException;
+import com.project.blog_application.repository.BlogPostRepository;
+import com.project.blog_application.repository.CommentRepository;
+import com.project.blog_application.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.UnsupportedEncodingException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class DashboardStreamTest {
+
+    private final PlatformCounters counters = new PlatformCounters(
+            mock(UserRepository.class), mock(BlogPostRepository.class), mock(CommentRepository.class));
+    private final ActivityFeed activityFeed = new ActivityFeed(null, 10, false, 0);
+    private final DashboardService dashboardService = mock(DashboardService.class);
+    private DashboardStream stream;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        activityFeed.seed(List.of());
+        when(dashboardService.getDashboardStats()).thenReturn(new DashboardStatsDTO(1, 2, 3, List.of()));
+        stream = new DashboardStream(counters, activityFeed, dashboardService,
+                Jackson2ObjectMapperBuilder.json().build(), new SimpleMeterRegistry(), 8, 2, 1, 60_000, 60_000);
+        mockMvc = MockMvcBuilders.standaloneSetup(new DashboardController(dashboardService, stream)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    private MockHttpServletResponse open() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/dashboard/stream")).andExpect(request().asyncStarted()).andReturn();
+        return result.getResponse();
+    }
+
+    // Events are written by the sender pool; wait for the expected text to arrive
+    private static boolean awaitContent(MockHttpServletResponse response, String expected)
+            throws InterruptedException, UnsupportedEncodingException {
+        for (int i = 0; i < 100; i++) {
+            if (response.getContentAsString().contains(expected)) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    @Test
+    void startsWithASnapshot() throws Exception {
+        MockHttpServletResponse response = open();
+
+        assertTrue(awaitContent(response, "event:snapshot"));
+        assertTrue(response.getContentAsString().contains("\"commentCount\":3"));
+    }
+
+    @Test
+    void tickSendsCounterDeltasAndNewActivity() throws Exception {
+        MockHttpServletResponse response = open();
+        assertTrue(awaitContent(response, "event:snapshot"));
+
+        counters.adjust(PlatformCounters.Metric.POSTS, 2);
+        activityFeed.record(ActivityFeed.postActivity("Hello", LocalDateTime.now()));
+        stream.tick();
+
+        assertTrue(awaitContent(response, "event:counters"));
+        assertTrue(response.getContentAsString().contains("\"postDelta\":2"));
+        assertTrue(awaitContent(response, "event:activity"));
+        assertTrue(response.getContentAsString().contains("New story: Hello"));
+    }
+
+    @Test
+    void quietTickSendsNothing() throws Exception {
+        MockHttpServletResponse response = open();
+        assertTrue(awaitContent(response, "event:snapshot"));
+
+        stream.tick();
+        Thread.sleep(100);
+
+        assertFalse(response.getContentAsString().contains("event:counters"));
+        assertFalse(response.getContentAsString().contains("event:activity"));
+    }
+
+    @Test
+    void subscribersAreCapped() {
+        stream.subscribe();
+        stream.subscribe();
+
+        assertThrows(ServiceBusyException.class, stream::subscribe);
+    }
+}
@@ -0,0 +1,142 @@
+package com.project.blog_application.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// Leasing uses FOR UPDATE SKIP LOCKED, so the queue runs against MySQL itself
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class FileDeletionQueueTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final FileStorageService storage = mock(FileStorageService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // The test's own transaction never commits, so only poll() drains the queue here
+    private FileDeletionQueue queue(int batchSize, int maxAttempts) {
+        return new FileDeletionQueue(storage, jdbcTemplate, transactionManager, meterRegistry,
+                batchSize, maxAttempts, 300_000, 60_000, 3_600_000);
+    }
+
+    private long pending() {
+        return new SqlFixtures(jdbcTemplate).count("pending_file_deletions");
+    }
+
+    @Test
+    void pollDeletesEveryEnqueuedFileAcrossBatches() {
+        FileDeletionQueue queue = queue(2, 8);
+        queue.enqueue(Arrays.asList("a.png", "/uploads/b.png", "", null, "c.png"));
+        queue.enqueue("d.png");
+        queue.enqueue(" ");
+        assertEquals(4, pending());
+
+        queue.poll();
+
+        verify(storage).delete("a.png");
+        verify(storage).delete("/uploads/b.png");
+        verify(storage).delete("c.png");
+        verify(storage).delete("d.png");
+        assertEquals(0, pending());
+        assertEquals(4, meterRegistry.counter("uploads_deletion_queue_processed_total").count());
+        assertEquals(0, meterRegistry.get("uploads_deletion_queue_backlog").gauge().value());
+        queue.shutdown();
+    }
+
+    @Test
+    void failedDeletionIsRescheduledWithBackoff() {
+        doThrow(new RuntimeException("disk busy")).when(storage).delete("a.png");
+        FileDeletionQueue queue = queue(10, 8);
+        queue.enqueue(List.of("a.png", "b.png"));
+
+        queue.poll();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT attempts, last_error FROM pending_file_deletions WHERE filename = 'a.png'");
+        assertEquals(1, ((Number) row.get("attempts")).intValue());
+        assertEquals("disk busy", row.get("last_error"));
+        LocalDateTime nextAttempt = jdbcTemplate.queryForObject(
+                "SELECT next_attempt_at FROM pending_file_deletions WHERE filename = 'a.png'", LocalDateTime.class);
+        assertTrue(nextAttempt.isAfter(LocalDateTime.now().plusSeconds(30)));
+        assertTrue(nextAttempt.isBefore(LocalDateTime.now().plusSeconds(90)));
+        assertEquals(1, pending());
+        assertEquals(1, meterRegistry.get("uploads_deletion_queue_backlog").gauge().value());
+
+        // Not due yet: the next poll leaves it alone
+        queue.poll();
+        verify(storage, times(1)).delete("a.png");
+        assertEquals(1, meterRegistry.counter("uploads_deletion_queue_failures_total").count());
+        queue.shutdown();
+    }
+
+    @Test
+    void entryIsDroppedAfterMaxAttempts() {
+        doThrow(new RuntimeException("disk busy")).when(storage).delete(anyString());
+        FileDeletionQueue queue = queue(10, 2);
+        queue.enqueue("a.png");
+
+        queue.poll();
+        assertEquals(1, pending());
+
+        jdbcTemplate.update("UPDATE pending_file_deletions SET next_attempt_at = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+        queue.poll();
+
+        verify(storage, times(2)).delete("a.png");
+        assertEquals(0, pending());
+        assertEquals(1, meterRegistry.counter("uploads_deletion_queue_abandoned_total").count());
+        queue.shutdown();
+    }
+
+    @Test
+    void rolledBackEnqueueLeavesNothingToDelete() {
+        FileDeletionQueue queue = queue(10, 8);
+        TransactionTemplate owner = new TransactionTemplate(transactionManager);
+        owner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        owner.executeWithoutResult(status -> {
+            queue.enqueue("a.png");
+            status.setRollbackOnly();
+        });
+        queue.poll();
+
+        assertEquals(0, pending());
+        verify(storage, never()).delete(anyString());
+        queue.shutdown();
+    }
+}
@@ -0,0 +1,119 @@
+package com.project.blog_application.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+// Reference counts rely on INSERT ... ON DUPLICATE KEY UPDATE and SELECT ... FOR UPDATE
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class FileStorageServiceTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path uploadDir;
+
+    private final ImageVariantService imageVariantService = mock(ImageVariantService.class);
+    private FileStorageService storage;
+    private SqlFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        storage = new FileStorageService(uploadDir.toString(), "/uploads", imageVariantService, jdbcTemplate,
+                transactionManager);
+        fixtures = new SqlFixtures(jdbcTemplate);
+    }
+
+    private String store(String content, String filename) {
+        return storage.storeStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), filename,
+                Long.MAX_VALUE);
+    }
+
+    private long refCount(String name) {
+        Long count = jdbcTemplate.queryForObject("SELECT ref_count FROM file_blobs WHERE name = ?", Long.class, name);
+        return count != null ? count : 0;
+    }
+
+    @Test
+    void identicalContentIsStoredOnce() throws IOException {
+        String first = store("same bytes", "a.png");
+        String second = store("same bytes", "b.PNG");
+        String other = store("other bytes", "c.png");
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertEquals(2, refCount(first));
+        assertEquals(1, refCount(other));
+        assertEquals("same bytes", Files.readString(uploadDir.resolve(first)));
+        assertEquals(2, fixtures.count("file_blobs"));
+    }
+
+    @Test
+    void fileIsRemovedWithItsLastReference() {
+        String name = store("shared", "a.png");
+        store("shared", "b.png");
+
+        // Posts store the public URL; either form is accepted
+        storage.delete("/uploads/" + name);
+        assertEquals(1, refCount(name));
+        assertTrue(Files.exists(uploadDir.resolve(name)));
+        verify(imageVariantService, never()).deleteVariants(name);
+
+        storage.delete(name);
+        assertEquals(0, fixtures.count("file_blobs"));
+        assertTrue(Files.notExists(uploadDir.resolve(name)));
+        verify(imageVariantService).deleteVariants(name);
+    }
+
+    @Test
+    void legacyFilesAreDeletedDirectly() throws IOException {
+        Files.writeString(uploadDir.resolve("legacy-uuid.png"), "old");
+
+        storage.delete("/uploads/legacy-uuid.png");
+
+        assertTrue(Files.notExists(uploadDir.resolve("legacy-uuid.png")));
+    }
+
+    @Test
+    void unknownBlobIsLeftAlone() throws IOException {
+        Path orphan = uploadDir.resolve("blobs/ab/cd/abcd.png");
+        Files.createDirectories(orphan.getParent());
+        Files.writeString(orphan, "x");
+
+        storage.delete("blobs/ab/cd/abcd.png");
+
+        assertTrue(Files.exists(orphan));
+    }
+}
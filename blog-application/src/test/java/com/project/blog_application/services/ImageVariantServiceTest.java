@@ -0,0 +1,100 @@
+package com.project.blog_application.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageVariantServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private ImageVariantService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ImageVariantService(new SimpleMeterRegistry(), uploadDir.toString(), true, 1, 10, 0.8f, 50_000_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private void writePng(String filename, int width, int height) throws IOException {
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png",
+                uploadDir.resolve(filename).toFile());
+    }
+
+    // variantName queues missing variants in the background; poll until they show up
+    private String awaitVariant(String filename) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            String name = service.variantName(filename, ImageVariantService.Variant.CARD);
+            if (name != null) {
+                return name;
+            }
+            Thread.sleep(50);
+        }
+        return null;
+    }
+
+    @Test
+    void writesAllVariantsScaledDown() throws IOException {
+        writePng("photo.png", 2000, 1000);
+
+        service.process("photo.png");
+
+        assertEquals("variants/photo_card.jpg", service.variantName("photo.png", ImageVariantService.Variant.CARD));
+        BufferedImage thumb = ImageIO.read(uploadDir.resolve("variants/photo_thumb.jpg").toFile());
+        assertEquals(160, thumb.getWidth());
+        assertEquals(80, thumb.getHeight());
+        assertTrue(Files.exists(uploadDir.resolve("variants/photo_full.jpg")));
+    }
+
+    @Test
+    void undecodableSourceIsNotRetriedUntilItsVariantsAreDeleted() throws IOException, InterruptedException {
+        Files.writeString(uploadDir.resolve("notes.png"), "not an image");
+
+        service.process("notes.png");
+        writePng("notes.png", 100, 100);
+
+        // Marked unsupported: no new attempt even though the file is now valid
+        Thread.sleep(200);
+        assertNull(service.variantName("notes.png", ImageVariantService.Variant.CARD));
+        Thread.sleep(200);
+        assertNull(service.variantName("notes.png", ImageVariantService.Variant.CARD));
+
+        service.deleteVariants("notes.png");
+
+        assertEquals("variants/notes_card.jpg", awaitVariant("notes.png"));
+    }
+
+    @Test
+    void ioFailureIsRetriedOnTheNextRead() throws IOException, InterruptedException {
+        writePng("photo.png", 100, 100);
+        // A non-empty directory where the full variant goes makes the final rename fail
+        Path blocker = uploadDir.resolve("variants/photo_full.jpg");
+        Files.createDirectories(blocker);
+        Files.writeString(blocker.resolve("keep"), "x");
+
+        service.process("photo.png");
+        assertTrue(Files.notExists(uploadDir.resolve("variants/photo_thumb.jpg")));
+
+        Files.delete(blocker.resolve("keep"));
+        Files.delete(blocker);
+
+        assertEquals("variants/photo_card.jpg", awaitVariant("photo.png"));
+    }
+}
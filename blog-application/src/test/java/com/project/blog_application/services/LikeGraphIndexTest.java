@@ -0,0 +1,113 @@
+package com.project.blog_application.services;
+
+import com.project.blog_application.repository.LikeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LikeGraphIndexTest {
+
+    private final LikeRepository likeRepository = mock(LikeRepository.class);
+
+    // A likes row as findEdgesAfter returns it: id, user id, post id
+    private static Object[] edge(long id, long userId, long blogPostId) {
+        return new Object[]{id, userId, blogPostId};
+    }
+
+    private static List<Object[]> edges(Object[]... rows) {
+        return List.of(rows);
+    }
+
+    private static void awaitReady(LikeGraphIndex index) throws InterruptedException {
+        for (int i = 0; i < 100 && !index.isReady(); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(index.isReady());
+    }
+
+    @Test
+    void loadsEdgesInChunksAndAnswersFromTheBitmaps() throws InterruptedException {
+        when(likeRepository.findEdgesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(edges(edge(1, 1, 10), edge(2, 2, 10)));
+        when(likeRepository.findEdgesAfter(eq(2L), any(Pageable.class)))
+                .thenReturn(edges(edge(3, 1, 11)));
+        when(likeRepository.findEdgesAfter(eq(3L), any(Pageable.class))).thenReturn(List.of());
+        LikeGraphIndex index = new LikeGraphIndex(likeRepository, true, 2);
+
+        index.loadOnStartup();
+        awaitReady(index);
+
+        assertEquals(2, index.likeCount(10));
+        assertEquals(1, index.likeCount(11));
+        assertEquals(0, index.likeCount(12));
+        assertTrue(index.hasLiked(2, 10));
+        assertFalse(index.hasLiked(2, 11));
+        assertArrayEquals(new long[]{10, 11}, index.likedPostIds(1));
+    }
+
+    @Test
+    void unlikeDuringLoadIsNotUndoneByAnOlderChunk() throws InterruptedException {
+        CountDownLatch chunkRead = new CountDownLatch(1);
+        CountDownLatch unlikeRecorded = new CountDownLatch(1);
+        when(likeRepository.findEdgesAfter(eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+            chunkRead.countDown();
+            unlikeRecorded.await(5, TimeUnit.SECONDS);
+            // Read before the unlike committed, so the edge is still in it
+            return edges(edge(1, 1, 10));
+        });
+        when(likeRepository.findEdgesAfter(eq(1L), any(Pageable.class))).thenReturn(List.of());
+        LikeGraphIndex index = new LikeGraphIndex(likeRepository, true, 100);
+
+        index.loadOnStartup();
+        assertTrue(chunkRead.await(5, TimeUnit.SECONDS));
+        index.recordUnlike(1, 10);
+        index.recordLike(2, 10);
+        unlikeRecorded.countDown();
+        awaitReady(index);
+
+        assertFalse(index.hasLiked(1, 10));
+        assertTrue(index.hasLiked(2, 10));
+        assertEquals(1, index.likeCount(10));
+    }
+
+    @Test
+    void removingAPostOrUserDropsBothDirections() throws InterruptedException {
+        when(likeRepository.findEdgesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(edges(edge(1, 1, 10), edge(2, 1, 11), edge(3, 2, 11)));
+        when(likeRepository.findEdgesAfter(eq(3L), any(Pageable.class))).thenReturn(List.of());
+        LikeGraphIndex index = new LikeGraphIndex(likeRepository, true, 100);
+        index.loadOnStartup();
+        awaitReady(index);
+
+        index.removePost(10);
+        assertArrayEquals(new long[]{11}, index.likedPostIds(1));
+
+        index.removeUser(1);
+        assertEquals(1, index.likeCount(11));
+        assertFalse(index.hasLiked(1, 11));
+        assertArrayEquals(new long[0], index.likedPostIds(1));
+    }
+
+    @Test
+    void disabledIndexNeverBecomesReady() {
+        LikeGraphIndex index = new LikeGraphIndex(likeRepository, false, 100);
+
+        index.loadOnStartup();
+        index.recordLike(1, 10);
+
+        assertFalse(index.isReady());
+        assertFalse(index.hasLiked(1, 10));
+    }
+}
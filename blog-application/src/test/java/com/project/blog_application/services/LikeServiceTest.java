@@ -0,0 +1,100 @@
+package com.project.blog_application.services;
+
+import com.project.blog_application.exceptions.ResourceNotFoundException;
+import com.project.blog_application.repository.BlogPostRepository;
+import com.project.blog_application.repository.LikeRepository;
+import com.project.blog_application.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LikeServiceTest {
+
+    private final LikeRepository likeRepository = mock(LikeRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final BlogPostRepository blogPostRepository = mock(BlogPostRepository.class);
+    private final LikeGraphIndex likeGraphIndex = mock(LikeGraphIndex.class);
+    private LikeService likeService;
+
+    @BeforeEach
+    void setUp() {
+        // Write-behind off (a mock reports disabled): every call goes straight to the statements
+        likeService = new LikeService(likeRepository, userRepository, blogPostRepository,
+                mock(LikeWriteBehindBuffer.class), likeGraphIndex, mock(AnalyticsRollupService.class));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(blogPostRepository.existsById(anyLong())).thenReturn(true);
+    }
+
+    @Test
+    void likeIsOneInsertWithoutLookups() {
+        when(likeRepository.insertIfAbsent(1L, 10L)).thenReturn(1);
+
+        assertTrue(likeService.like(1L, 10L));
+
+        verifyNoInteractions(userRepository, blogPostRepository);
+        // Outside a transaction the after-commit hook runs at once
+        verify(likeGraphIndex).recordLike(1L, 10L);
+    }
+
+    @Test
+    void repeatedLikeIsANoOp() {
+        when(likeRepository.insertIfAbsent(1L, 10L)).thenReturn(0);
+
+        assertFalse(likeService.like(1L, 10L));
+        verify(likeGraphIndex, never()).recordLike(anyLong(), anyLong());
+    }
+
+    @Test
+    void likeOfAMissingPostIsNotFound() {
+        when(likeRepository.insertIfAbsent(1L, 10L)).thenReturn(0);
+        when(blogPostRepository.existsById(10L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> likeService.like(1L, 10L));
+    }
+
+    @Test
+    void unlikeReportsWhetherALikeWasRemoved() {
+        when(likeRepository.deleteIfPresent(1L, 10L)).thenReturn(1, 0);
+
+        assertTrue(likeService.unlike(1L, 10L));
+        assertFalse(likeService.unlike(1L, 10L));
+        verify(likeGraphIndex).recordUnlike(1L, 10L);
+    }
+
+    @Test
+    void toggleTriesTheStatementTheIndexPredicts() {
+        when(likeGraphIndex.isReady()).thenReturn(true);
+        when(likeGraphIndex.hasLiked(1L, 10L)).thenReturn(true);
+        when(likeRepository.deleteIfPresent(1L, 10L)).thenReturn(1);
+
+        assertEquals("Post unliked successfully.", likeService.toggleLike(1L, 10L));
+        verify(likeRepository, never()).insertIfAbsent(anyLong(), anyLong());
+    }
+
+    @Test
+    void toggleFallsBackToTheOtherStatementWhenThePredictionIsStale() {
+        // Index says not liked, but the row exists: the insert is a no-op and the delete runs
+        when(likeRepository.insertIfAbsent(1L, 10L)).thenReturn(0);
+        when(likeRepository.deleteIfPresent(1L, 10L)).thenReturn(1);
+
+        assertEquals("Post unliked successfully.", likeService.toggleLike(1L, 10L));
+    }
+
+    @Test
+    void toggleOfAMissingPostFails() {
+        when(likeRepository.insertIfAbsent(1L, 10L)).thenReturn(0);
+        when(likeRepository.deleteIfPresent(1L, 10L)).thenReturn(0);
+
+        assertThrows(RuntimeException.class, () -> likeService.toggleLike(1L, 10L));
+    }
+}
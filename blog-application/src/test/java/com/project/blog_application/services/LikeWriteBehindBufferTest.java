@@ -0,0 +1,133 @@
+package com.project.blog_application.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LikeWriteBehindBufferTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private LikeWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        // A mocked transaction manager: the TransactionTemplate just runs the callback
+        buffer = new LikeWriteBehindBuffer(jdbcTemplate, mock(PlatformTransactionManager.class), true, 1000, 500, 4);
+    }
+
+    @Test
+    void likeThenUnlikeCollapsesToNothing() {
+        LikeWriteBehindBuffer.Transition like = buffer.toggle(1, 10, () -> false);
+        LikeWriteBehindBuffer.Transition unlike = buffer.toggle(1, 10, () -> false);
+
+        assertTrue(like.changed());
+        assertTrue(like.current());
+        assertTrue(unlike.changed());
+        assertFalse(unlike.current());
+        assertNull(buffer.pendingState(1, 10));
+        assertEquals(0, buffer.pendingCount());
+        assertEquals(0, buffer.pendingDelta(10));
+
+        buffer.flush();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void pendingDeltaTracksNetChangeAcrossUsers() {
+        buffer.set(1, 10, true, () -> false);
+        buffer.set(2, 10, true, () -> false);
+        buffer.set(3, 10, false, () -> true);
+        // Already liked in the DB: no change, no delta
+        buffer.set(4, 10, true, () -> true);
+
+        assertEquals(1, buffer.pendingDelta(10));
+        assertEquals(0, buffer.pendingDelta(11));
+        assertEquals(3, buffer.pendingCount());
+        assertEquals(true, buffer.pendingState(1, 10));
+        assertEquals(false, buffer.pendingState(3, 10));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushWritesBatchesAndClearsPendingState() {
+        buffer.set(1, 10, true, () -> false);
+        buffer.set(2, 10, false, () -> true);
+
+        buffer.flush();
+
+        ArgumentCaptor<List<Object[]>> inserts = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Object[]>> deletes = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq("INSERT IGNORE INTO likes (user_id, blog_post_id, created_at) VALUES (?, ?, ?)"),
+                inserts.capture());
+        verify(jdbcTemplate).batchUpdate(eq("DELETE FROM likes WHERE user_id = ? AND blog_post_id = ?"),
+                deletes.capture());
+        assertEquals(1, inserts.getValue().size());
+        assertEquals(1L, inserts.getValue().get(0)[0]);
+        assertEquals(1, deletes.getValue().size());
+        assertEquals(2L, deletes.getValue().get(0)[0]);
+
+        assertEquals(0, buffer.pendingCount());
+        assertNull(buffer.pendingState(1, 10));
+        assertNull(buffer.pendingState(2, 10));
+        assertEquals(0, buffer.pendingDelta(10));
+    }
+
+    @Test
+    void failedFlushRequeuesEverything() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timeout"));
+        buffer.set(1, 10, true, () -> false);
+        buffer.set(2, 11, true, () -> false);
+
+        buffer.flush();
+
+        assertEquals(2, buffer.pendingCount());
+        assertEquals(true, buffer.pendingState(1, 10));
+        assertEquals(true, buffer.pendingState(2, 11));
+        assertEquals(1, buffer.pendingDelta(10));
+        assertEquals(1, buffer.pendingDelta(11));
+    }
+
+    @Test
+    void requeueKeepsAToggleMadeAfterTheFailedFlush() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timeout"));
+        buffer.set(1, 10, true, () -> false);
+        buffer.flush();
+
+        // Unliked again: back to the DB state, nothing pending
+        buffer.toggle(1, 10, () -> false);
+
+        assertEquals(0, buffer.pendingCount());
+        assertNull(buffer.pendingState(1, 10));
+        assertEquals(0, buffer.pendingDelta(10));
+    }
+
+    @Test
+    void maxPendingTriggersAnInlineFlush() {
+        buffer = new LikeWriteBehindBuffer(jdbcTemplate, mock(PlatformTransactionManager.class), true, 2, 500, 4);
+        buffer.set(1, 10, true, () -> false);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+
+        buffer.set(2, 10, true, () -> false);
+
+        verify(jdbcTemplate).batchUpdate(anyString(), any(List.class));
+        assertEquals(0, buffer.pendingCount());
+    }
+}
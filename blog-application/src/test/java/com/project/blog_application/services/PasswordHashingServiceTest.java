@@ -0,0 +1,103 @@
+package com.project.blog_application.services;
+
+import com.project.blog_application.exceptions.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    // An encoder whose encode() blocks until the test releases it
+    private PasswordEncoder blockingEncoder(CountDownLatch started) {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+        return encoder;
+    }
+
+    private double rejected() {
+        return registry.get("auth_password_hash_rejected_total").counter().count();
+    }
+
+    @Test
+    void encodesAndVerifiesOnThePool() {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(4), registry, 2, 4, 5000);
+
+        String hash = service.encode("secret");
+
+        assertTrue(service.matches("secret", hash));
+        assertFalse(service.matches("wrong", hash));
+        assertEquals(1, registry.get("auth_password_hash_duration").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("auth_password_hash_duration").tag("operation", "verify").timer().count());
+    }
+
+    @Test
+    void fullQueueIsRejectedRightAway() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        service = new PasswordHashingService(blockingEncoder(started), registry, 1, 1, 5000);
+
+        // One task on the worker, one in the queue
+        CompletableFuture.runAsync(() -> service.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> service.encode("b"));
+        for (int i = 0; i < 100 && registry.get("auth_password_hash_queue_depth").gauge().value() < 1; i++) {
+            Thread.sleep(10);
+        }
+
+        assertThrows(ServiceBusyException.class, () -> service.encode("c"));
+        assertEquals(1, rejected());
+    }
+
+    @Test
+    void taskOverTheTimeoutIsReportedBusy() {
+        service = new PasswordHashingService(blockingEncoder(new CountDownLatch(1)), registry, 1, 4, 50);
+
+        assertThrows(ServiceBusyException.class, () -> service.encode("a"));
+        assertEquals(1, rejected());
+    }
+
+    @Test
+    void weakerHashesAreUpgradedInTheBackground() throws InterruptedException {
+        String weak = new BCryptPasswordEncoder(4).encode("secret");
+        service = new PasswordHashingService(new BCryptPasswordEncoder(5), registry, 1, 4, 5000);
+        assertTrue(service.needsUpgrade(weak));
+
+        CountDownLatch stored = new CountDownLatch(1);
+        String[] upgraded = new String[1];
+        service.upgradeInBackground("secret", hash -> {
+            upgraded[0] = hash;
+            stored.countDown();
+        });
+
+        assertTrue(stored.await(5, TimeUnit.SECONDS));
+        assertFalse(service.needsUpgrade(upgraded[0]));
+        assertTrue(service.matches("secret", upgraded[0]));
+    }
+}
@@ -0,0 +1,79 @@
+package com.project.blog_application.services;
+
+import com.project.blog_application.repository.BlogPostRepository;
+import com.project.blog_application.repository.CommentRepository;
+import com.project.blog_application.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PlatformCountersTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final BlogPostRepository blogPostRepository = mock(BlogPostRepository.class);
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+    private PlatformCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new PlatformCounters(userRepository, blogPostRepository, commentRepository);
+        when(userRepository.count()).thenReturn(3L);
+        when(blogPostRepository.count()).thenReturn(5L);
+        when(commentRepository.countOnLivePosts()).thenReturn(8L);
+    }
+
+    @Test
+    void seedsFromCountsAndMovesWithAdjustments() {
+        counters.seedOnStartup();
+        counters.adjust(PlatformCounters.Metric.POSTS, 1);
+        counters.adjust(PlatformCounters.Metric.COMMENTS, -2);
+
+        assertTrue(counters.isSeeded());
+        assertEquals(3, counters.get(PlatformCounters.Metric.USERS));
+        assertEquals(6, counters.get(PlatformCounters.Metric.POSTS));
+        assertEquals(6, counters.get(PlatformCounters.Metric.COMMENTS));
+    }
+
+    @Test
+    void reconcileCorrectsDrift() {
+        counters.seedOnStartup();
+        // A write made on another node
+        when(blogPostRepository.count()).thenReturn(7L);
+
+        counters.reconcile();
+
+        assertEquals(7, counters.get(PlatformCounters.Metric.POSTS));
+    }
+
+    @Test
+    void failedSeedLeavesTheCountersUnseeded() {
+        when(userRepository.count()).thenThrow(new QueryTimeoutException("timeout"));
+
+        counters.seedOnStartup();
+
+        assertFalse(counters.isSeeded());
+    }
+
+    @Test
+    void adjustmentsWaitForTheTransactionToCommit() {
+        counters.seedOnStartup();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counters.adjust(PlatformCounters.Metric.USERS, 1);
+            assertEquals(3, counters.get(PlatformCounters.Metric.USERS));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(4, counters.get(PlatformCounters.Metric.USERS));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.project.blog_application.services;
+
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+// FOR UPDATE SKIP LOCKED and DELETE ... LIMIT need MySQL itself
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(ContentDeletionService.class)
+class PostPurgeServiceTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private ContentDeletionService contentDeletionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final FileDeletionQueue fileDeletionQueue = mock(FileDeletionQueue.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SqlFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new SqlFixtures(jdbcTemplate);
+        fixtures.user(1, null);
+        fixtures.user(2, null);
+    }
+
+    // Ten-minute grace period, one post per batch so several batches run
+    private PostPurgeService purgeService() {
+        return new PostPurgeService(contentDeletionService, fileDeletionQueue, jdbcTemplate, transactionManager,
+                meterRegistry, true, 600_000, 1, 10, 0, 5);
+    }
+
+    @Test
+    void purgesSoftDeletedPostsPastTheGracePeriod() {
+        LocalDateTime hourAgo = LocalDateTime.now().minusHours(1);
+        fixtures.softDeletedPost(1, 1, "/uploads/one.png", hourAgo);
+        fixtures.comment(10, 1, 2);
+        fixtures.like(1, 2, 1);
+        fixtures.softDeletedPost(2, 1, null, hourAgo);
+        fixtures.comment(20, 2, 2);
+        // Inside the grace period
+        fixtures.softDeletedPost(3, 1, "/uploads/recent.png", LocalDateTime.now());
+        fixtures.post(4, 1, "/uploads/live.png", 1);
+        fixtures.comment(40, 4, 2);
+
+        purgeService().purge();
+
+        assertEquals(List.of(3L, 4L), jdbcTemplate.queryForList("SELECT id FROM blog_posts ORDER BY id", Long.class));
+        assertEquals(List.of(40L), jdbcTemplate.queryForList("SELECT id FROM comments", Long.class));
+        assertEquals(0, fixtures.count("likes"));
+        verify(fileDeletionQueue).enqueue(List.of("/uploads/one.png"));
+        assertEquals(2, meterRegistry.get("posts_purged_total").counter().count());
+    }
+
+    @Test
+    void defersWhileTooManyRequestsAreInFlight() {
+        fixtures.softDeletedPost(1, 1, "/uploads/one.png", LocalDateTime.now().minusHours(1));
+        LongTaskTimer active = LongTaskTimer.builder("http.server.requests.active").register(meterRegistry);
+        for (int i = 0; i < 6; i++) {
+            active.start();
+        }
+
+        purgeService().purge();
+
+        assertEquals(1, fixtures.count("blog_posts"));
+        verify(fileDeletionQueue, never()).enqueue(anyCollection());
+        assertEquals(1, meterRegistry.get("posts_purge_deferred_total").counter().count());
+    }
+}
@@ -0,0 +1,75 @@
+package com.project.blog_application.services;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Plain-SQL rows for the deletion and purge tests, written below JPA the same way the services
+ * under test read and delete them.
+ */
+final class SqlFixtures {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    SqlFixtures(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    void user(long id, String profilePicture) {
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, role, created_at, profile_picture) "
+                        + "VALUES (?, ?, ?, 'x', 'USER', NOW(), ?)",
+                id, "user" + id, "user" + id + "@example.com", profilePicture);
+    }
+
+    void post(long id, long userId, String imageUrl, long commentCount) {
+        jdbcTemplate.update("INSERT INTO blog_posts (id, title, content, image_url, user_id, created_at, updated_at, "
+                        + "is_deleted, comment_count) VALUES (?, ?, 'content', ?, ?, NOW(), NOW(), 0, ?)",
+                id, "post " + id, imageUrl, userId, commentCount);
+    }
+
+    void softDeletedPost(long id, long userId, String imageUrl, LocalDateTime deletedAt) {
+        post(id, userId, imageUrl, 0);
+        jdbcTemplate.update("UPDATE blog_posts SET is_deleted = 1, deleted_at = ? WHERE id = ?",
+                Timestamp.valueOf(deletedAt), id);
+    }
+
+    // Top-level comment; returns its path
+    String comment(long id, long postId, long userId) {
+        return insertComment(id, postId, userId, null, "");
+    }
+
+    // Reply to the comment with the given id and path; returns the reply's path
+    String reply(long id, long postId, long userId, long parentId, String parentPath) {
+        return insertComment(id, postId, userId, parentId, parentPath);
+    }
+
+    private String insertComment(long id, long postId, long userId, Long parentId, String parentPath) {
+        String path = parentPath + String.format("%012d/", id);
+        jdbcTemplate.update("INSERT INTO comments (id, content, user_id, blog_post_id, created_at, parent_id, root_id, "
+                        + "path, depth) VALUES (?, 'comment', ?, ?, NOW(), ?, ?, ?, ?)",
+                id, userId, postId, parentId, Long.parseLong(path.substring(0, 12)), path, path.length() / 13 - 1);
+        return path;
+    }
+
+    void like(long id, long userId, long postId) {
+        jdbcTemplate.update("INSERT INTO likes (id, user_id, blog_post_id, created_at) VALUES (?, ?, ?, NOW())",
+                id, userId, postId);
+    }
+
+    long count(String table) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        return count != null ? count : 0;
+    }
+
+    long count(String table, String where, Object... args) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + where, Long.class, args);
+        return count != null ? count : 0;
+    }
+
+    long commentCount(long postId) {
+        Long count = jdbcTemplate.queryForObject("SELECT comment_count FROM blog_posts WHERE id = ?", Long.class, postId);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,117 @@
+package com.project.blog_application.services;
+
+import com.project.blog_application.exceptions.InvalidUploadException;
+import com.project.blog_application.exceptions.PayloadTooLargeException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class StreamingUploadServiceTest {
+
+    private static final String BOUNDARY = "----test-boundary";
+
+    @TempDir
+    Path uploadDir;
+
+    private StreamingUploadService service;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageService storage = new FileStorageService(uploadDir.toString(), "/uploads",
+                mock(ImageVariantService.class), mock(JdbcTemplate.class), mock(PlatformTransactionManager.class));
+        // 16-byte files, 1 KB requests
+        service = new StreamingUploadService(storage, new SimpleMeterRegistry(), 1, 4, 16, 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private static MockHttpServletRequest multipart(String field, String filename, String content) {
+        String body = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"title\"\r\n\r\nignored\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + field + "\"; filename=\"" + filename + "\"\r\n"
+                + "Content-Type: image/png\r\n\r\n"
+                + content + "\r\n"
+                + "--" + BOUNDARY + "--\r\n";
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/uploads/stream");
+        request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static Throwable failure(Runnable upload) {
+        CompletionException e = assertThrows(CompletionException.class, upload::run);
+        return e.getCause();
+    }
+
+    private long tempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(uploadDir.resolve("tmp"))) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void streamsTheFilePartToContentAddressedStorage() throws IOException {
+        StreamingUploadService.StoredUpload stored = service.upload(multipart("file", "photo.PNG", "image bytes")).join();
+
+        assertTrue(stored.filename().startsWith("blobs/"));
+        assertTrue(stored.filename().endsWith(".png"));
+        assertEquals("/uploads/" + stored.filename(), stored.url());
+        assertEquals("image/png", stored.contentType());
+        assertEquals("image bytes", Files.readString(uploadDir.resolve(stored.filename())));
+        assertEquals(0, tempFiles());
+    }
+
+    @Test
+    void fileOverTheLimitIsRejectedAndNotKept() throws IOException {
+        Throwable cause = failure(() -> service.upload(multipart("file", "big.png", "x".repeat(17))).join());
+
+        assertInstanceOf(PayloadTooLargeException.class, cause);
+        assertEquals(0, tempFiles());
+        assertTrue(Files.notExists(uploadDir.resolve("blobs")));
+    }
+
+    @Test
+    void declaredLengthOverTheRequestLimitIsRejectedUpFront() {
+        MockHttpServletRequest request = multipart("file", "a.png", "x");
+        request.setContent(new byte[2048]);
+
+        assertThrows(PayloadTooLargeException.class, () -> service.upload(request));
+    }
+
+    @Test
+    void requestWithoutAFilePartIsInvalid() {
+        Throwable cause = failure(() -> service.upload(multipart("avatar", "a.png", "x")).join());
+
+        assertInstanceOf(InvalidUploadException.class, cause);
+    }
+
+    @Test
+    void emptyFileIsInvalid() throws IOException {
+        Throwable cause = failure(() -> service.upload(multipart("file", "a.png", "")).join());
+
+        assertInstanceOf(InvalidUploadException.class, cause);
+        assertEquals(0, tempFiles());
+    }
+}
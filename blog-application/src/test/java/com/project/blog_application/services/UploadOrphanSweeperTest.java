@@ -0,0 +1,149 @@
+package com.project.blog_application.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+// The reference lookups and blob row locks run against MySQL itself
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class UploadOrphanSweeperTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path uploadDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private FileStorageService storage;
+    private SqlFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        storage = new FileStorageService(uploadDir.toString(), "/uploads", mock(ImageVariantService.class),
+                jdbcTemplate, transactionManager);
+        fixtures = new SqlFixtures(jdbcTemplate);
+        fixtures.user(1, null);
+    }
+
+    // One-hour grace period
+    private UploadOrphanSweeper sweeper(int batchSize) {
+        return new UploadOrphanSweeper(storage, jdbcTemplate, transactionManager, meterRegistry,
+                uploadDir.toString(), true, batchSize, 3_600_000);
+    }
+
+    private Path file(String name, boolean old) throws IOException {
+        Path path = uploadDir.resolve(name);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, name);
+        if (old) {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+        }
+        return path;
+    }
+
+    private void blobRow(String name, long refCount, LocalDateTime touchedAt) {
+        jdbcTemplate.update("INSERT INTO file_blobs (name, sha256, size_bytes, ref_count, created_at, touched_at) "
+                        + "VALUES (?, 'sha', 1, ?, ?, ?)",
+                name, refCount, Timestamp.valueOf(touchedAt), Timestamp.valueOf(touchedAt));
+    }
+
+    private double reclaimed() {
+        return meterRegistry.get("uploads_orphan_reclaimed_files_total").counter().count();
+    }
+
+    @Test
+    void removesOnlyOldUnreferencedLegacyFiles() throws IOException {
+        Path orphan = file("orphan.png", true);
+        Path attached = file("attached.png", true);
+        Path avatar = file("avatar.png", true);
+        Path recent = file("recent.png", false);
+        Path staleTemp = file("tmp/dead.part", true);
+        Path variant = file("variants/orphan_card.jpg", true);
+        fixtures.post(1, 1, "/uploads/attached.png", 0);
+        jdbcTemplate.update("UPDATE users SET profile_picture = 'avatar.png' WHERE id = 1");
+
+        sweeper(100).sweep();
+
+        assertTrue(Files.notExists(orphan));
+        assertTrue(Files.notExists(staleTemp));
+        assertTrue(Files.exists(attached));
+        assertTrue(Files.exists(avatar));
+        assertTrue(Files.exists(recent));
+        assertTrue(Files.exists(variant));
+        assertEquals(2, reclaimed());
+    }
+
+    @Test
+    void reconcilesBlobReferenceCounts() throws IOException {
+        LocalDateTime hoursAgo = LocalDateTime.now().minusHours(2);
+        Path unreferenced = file("blobs/aa/bb/unreferenced.png", true);
+        blobRow("blobs/aa/bb/unreferenced.png", 2, hoursAgo);
+        Path drifted = file("blobs/cc/dd/drifted.png", true);
+        blobRow("blobs/cc/dd/drifted.png", 3, hoursAgo);
+        fixtures.post(1, 1, "/uploads/blobs/cc/dd/drifted.png", 0);
+        // Just uploaded: its post may not be saved yet
+        Path fresh = file("blobs/ee/ff/fresh.png", true);
+        blobRow("blobs/ee/ff/fresh.png", 1, LocalDateTime.now());
+
+        sweeper(100).sweep();
+
+        assertTrue(Files.notExists(unreferenced));
+        assertEquals(0, fixtures.count("file_blobs", "name = ?", "blobs/aa/bb/unreferenced.png"));
+        assertTrue(Files.exists(drifted));
+        assertEquals(1L, jdbcTemplate.queryForObject(
+                "SELECT ref_count FROM file_blobs WHERE name = 'blobs/cc/dd/drifted.png'", Long.class));
+        assertTrue(Files.exists(fresh));
+        assertEquals(1, reclaimed());
+    }
+
+    @Test
+    void smallBatchesResumeWhereTheLastRunStopped() throws IOException {
+        for (String name : new String[]{"a.png", "b/c.png", "b/d.png", "e.png", "f.png"}) {
+            file(name, true);
+        }
+        UploadOrphanSweeper sweeper = sweeper(2);
+
+        sweeper.sweep();
+        assertEquals(2, reclaimed());
+        assertTrue(Files.notExists(uploadDir.resolve("a.png")));
+        assertTrue(Files.notExists(uploadDir.resolve("b/c.png")));
+
+        sweeper.sweep();
+        sweeper.sweep();
+        assertEquals(5, reclaimed());
+        assertTrue(Files.notExists(uploadDir.resolve("f.png")));
+    }
+}